@@ -29,7 +29,13 @@ dependencies {
     // Additional utilities
     implementation("org.apache.commons:commons-lang3:3.14.0")
     implementation("com.google.code.gson:gson:2.10.1")
+    implementation("com.zaxxer:HikariCP:6.2.1")
     implementation(kotlin("stdlib-jdk8"))
+
+    // Paper ships the SQLite driver at runtime, the tests need their own
+    testImplementation("org.junit.jupiter:junit-jupiter:5.11.4")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    testImplementation("org.xerial:sqlite-jdbc:3.47.1.0")
 }
 
 java {
@@ -42,12 +48,17 @@ tasks {
         options.release.set(21)
     }
     
+    test {
+        useJUnitPlatform()
+    }
+
     shadowJar {
         archiveBaseName.set("Pandora")
         archiveClassifier.set("")
         
         relocate("org.apache.commons.lang3", "dev.ocean.pandora.libs.commons")
         relocate("com.google.gson", "dev.ocean.pandora.libs.gson")
+        relocate("com.zaxxer.hikari", "dev.ocean.pandora.libs.hikari")
     }
     
     processResources {
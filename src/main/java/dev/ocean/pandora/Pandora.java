@@ -2,6 +2,11 @@ package dev.ocean.pandora;
 
 import dev.ocean.pandora.command.PandoraCommand;
 import dev.ocean.pandora.database.DatabaseManager;
+import dev.ocean.pandora.database.MatchResultWriter;
+import dev.ocean.pandora.database.SpoolingStatsStorage;
+import dev.ocean.pandora.database.StatsStorage;
+import dev.ocean.pandora.database.log.LogStatsStorage;
+import dev.ocean.pandora.listener.BlockListener;
 import dev.ocean.pandora.listener.MatchListener;
 import dev.ocean.pandora.listener.ItemListener;
 import dev.ocean.pandora.listener.MenuListener;
@@ -18,10 +23,16 @@ public class Pandora extends JavaPlugin {
     private static Pandora instance;
 
     private ConfigManager configManager;
-    private DatabaseManager databaseManager;
+    private StatsStorage statsStorage;
+    private MatchResultWriter matchResultWriter;
+    private StatsManager statsManager;
+    private LeaderboardManager leaderboardManager;
+    private HistoryCompactionManager historyCompactionManager;
     private UserManager userManager;
     private MatchManager matchManager;
     private ArenaManager arenaManager;
+    private ArenaInstanceManager arenaInstanceManager;
+    private BlockTaskManager blockTaskManager;
     private KitManager kitManager;
     private BotManager botManager;
     private QueueManager queueManager;
@@ -34,10 +45,19 @@ public class Pandora extends JavaPlugin {
 
         // Initialize managers in proper order
         configManager = new ConfigManager(this);
-        databaseManager = new DatabaseManager(this, configManager);
+        statsStorage = "log".equalsIgnoreCase(configManager.getDatabaseType())
+                ? new LogStatsStorage(this)
+                : new SpoolingStatsStorage(this, new DatabaseManager(this, configManager),
+                        configManager.getDatabaseSettings().getSpoolQueueSize());
         userManager = new UserManager();
+        statsManager = new StatsManager(this);
+        leaderboardManager = new LeaderboardManager(this);
+        historyCompactionManager = new HistoryCompactionManager(this);
+        matchResultWriter = new MatchResultWriter(this, statsStorage, statsManager);
         matchManager = new MatchManager();
         arenaManager = new ArenaManager(this);
+        arenaInstanceManager = new ArenaInstanceManager(this);
+        blockTaskManager = new BlockTaskManager(this);
         kitManager = new KitManager(this);
         botManager = new BotManager();
         queueManager = new QueueManager(this);
@@ -45,6 +65,7 @@ public class Pandora extends JavaPlugin {
         menuManager = new MenuManager();
 
         // Load configurations and data
+        arenaInstanceManager.load();
         loadArenas();
         loadKits();
 
@@ -52,9 +73,22 @@ public class Pandora extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new MatchListener(this), this);
         getServer().getPluginManager().registerEvents(new ItemListener(this), this);
         getServer().getPluginManager().registerEvents(new MenuListener(this), this);
+        getServer().getPluginManager().registerEvents(new BlockListener(this), this);
 
         // Register commands
-        getCommand("pandora").setExecutor(new PandoraCommand(this));
+        PandoraCommand command = new PandoraCommand(this);
+        getCommand("pandora").setExecutor(command);
+        getServer().getPluginManager().registerEvents(command, this);
+
+        // Start scheduled tasks
+        queueManager.startMatchmaking();
+        matchManager.startTicker();
+        matchManager.onMatchEnd(matchResultWriter::submit);
+        matchResultWriter.start();
+        statsManager.startFlushing();
+        leaderboardManager.load();
+        historyCompactionManager.start();
+        blockTaskManager.start();
 
         getLogger().info("Pandora has been enabled!");
     }
@@ -66,17 +100,29 @@ public class Pandora extends JavaPlugin {
             configManager.saveConfigs();
         }
 
+        // End all active matches
+        if (matchManager != null) {
+            matchManager.getActiveMatches().forEach(match -> matchManager.endMatch(match.getUuid()));
+        }
+
+        // Results from the matches above still need the storage
+        if (matchResultWriter != null) {
+            matchResultWriter.shutdown();
+        }
+
+        // Write back every stat change still held in memory
+        if (statsManager != null) {
+            statsManager.flush();
+        }
+
         // Disconnect database
-        if (databaseManager != null) {
-            databaseManager.disconnect();
+        if (statsStorage != null) {
+            statsStorage.disconnect();
         }
 
-        // End all active matches
-        if (matchManager != null) {
-            matchManager.getActiveMatches().forEach(match -> {
-                match.end();
-                match.cleanup();
-            });
+        // Finish pending arena rollbacks before the worlds are saved
+        if (blockTaskManager != null) {
+            blockTaskManager.flush();
         }
 
         getLogger().info("Pandora has been disabled!");
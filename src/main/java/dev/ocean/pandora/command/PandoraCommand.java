@@ -3,21 +3,43 @@ package dev.ocean.pandora.command;
 import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.core.arena.Arena;
 import dev.ocean.pandora.core.kit.Kit;
+import dev.ocean.pandora.core.leaderboard.Leaderboard;
+import dev.ocean.pandora.core.match.Match;
 import dev.ocean.pandora.core.player.User;
 import dev.ocean.pandora.core.player.UserStatus;
+import dev.ocean.pandora.database.MatchHistoryEntry;
+import dev.ocean.pandora.manager.ArenaManager;
+import dev.ocean.pandora.manager.LeaderboardManager;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PandoraCommand implements CommandExecutor, Listener {
+    private static final int HISTORY_PAGE_SIZE = 10;
 
-public class PandoraCommand implements CommandExecutor {
     private final Pandora plugin;
+    // Last entry each player has seen, the cursor for their next history page
+    private final Map<UUID, MatchHistoryEntry> historyCursors = new ConcurrentHashMap<>();
 
     public PandoraCommand(Pandora plugin) {
         this.plugin = plugin;
     }
 
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        historyCursors.remove(event.getPlayer().getUniqueId());
+    }
+
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player)) {
@@ -43,12 +65,18 @@ public class PandoraCommand implements CommandExecutor {
             case "stats":
                 handleStats(player, args);
                 break;
+            case "top":
+                handleTop(player, args);
+                break;
             case "spectate":
                 handleSpectate(player, args);
                 break;
             case "reload":
                 handleReload(player);
                 break;
+            case "arena":
+                handleArena(player, args);
+                break;
             default:
                 sendHelp(player);
                 break;
@@ -64,7 +92,8 @@ public class PandoraCommand implements CommandExecutor {
         }
 
         if (user.getStatus() == UserStatus.IN_QUEUE) {
-            player.sendMessage(ChatColor.RED + "You are already in a queue!");
+            int position = plugin.getQueueManager().getQueuePosition(user);
+            player.sendMessage(ChatColor.RED + "You are already in a queue!" + (position > 0 ? " (#" + position + ")" : ""));
             return;
         }
 
@@ -86,7 +115,12 @@ public class PandoraCommand implements CommandExecutor {
 
     private void handleLeave(Player player, User user) {
         if (user.getCurrentMatch() != null) {
-            plugin.getMatchManager().endMatch(user.getCurrentMatch().getUuid());
+            // Leaving mid-match forfeits it, same as quitting
+            Match match = user.getCurrentMatch();
+            if (!match.isEnded()) {
+                match.setWinners(match.getOpponents(user));
+            }
+            plugin.getMatchManager().endMatch(match.getUuid());
             player.sendMessage(ChatColor.YELLOW + "You have left the match!");
         } else if (user.getStatus() == UserStatus.IN_QUEUE) {
             plugin.getQueueManager().leaveQueue(user);
@@ -96,8 +130,108 @@ public class PandoraCommand implements CommandExecutor {
     }
 
     private void handleStats(Player player, String[] args) {
-        // Implementation for stats command
-        player.sendMessage(ChatColor.YELLOW + "Stats feature coming soon!");
+        if (args.length > 1 && (args[1].equalsIgnoreCase("history") || args[1].equalsIgnoreCase("next"))) {
+            handleHistory(player, args[1].equalsIgnoreCase("next"));
+            return;
+        }
+
+        // Served from the cache, a miss is looked up off the main thread and answered back on it
+        plugin.getStatsManager().load(player.getUniqueId(), player.getName()).whenComplete((stats, error) -> {
+            if (!player.isOnline()) {
+                return;
+            }
+
+            if (error != null) {
+                player.sendMessage(ChatColor.RED + "Your stats could not be loaded, try again later!");
+                return;
+            }
+
+            if (stats == null) {
+                player.sendMessage(ChatColor.YELLOW + "You have not played any matches yet!");
+                return;
+            }
+
+            player.sendMessage(ChatColor.GOLD + "=== Your Stats ===");
+            player.sendMessage(ChatColor.YELLOW + "Elo: " + ChatColor.WHITE + stats.getElo());
+            player.sendMessage(ChatColor.YELLOW + "Wins: " + ChatColor.WHITE + stats.getWins()
+                    + ChatColor.YELLOW + " Losses: " + ChatColor.WHITE + stats.getLosses());
+            player.sendMessage(ChatColor.YELLOW + "Win rate: " + ChatColor.WHITE + String.format("%.1f%%", stats.getWinRate()));
+            player.sendMessage(ChatColor.YELLOW + "Streak: " + ChatColor.WHITE + stats.getStreak());
+
+            int rank = plugin.getLeaderboardManager().getRank(LeaderboardManager.GLOBAL, player.getUniqueId());
+            if (rank > 0) {
+                player.sendMessage(ChatColor.YELLOW + "Rank: " + ChatColor.WHITE + "#" + rank);
+            }
+
+            stats.getKitRatings().forEach((kit, rating) -> player.sendMessage(
+                    ChatColor.YELLOW + "  " + kit + ": " + ChatColor.WHITE + rating));
+        });
+    }
+
+    // Pages are fetched by keyset, so the next page costs the same no matter how far back it is
+    private void handleHistory(Player player, boolean next) {
+        MatchHistoryEntry after = next ? historyCursors.get(player.getUniqueId()) : null;
+        if (next && after == null) {
+            player.sendMessage(ChatColor.RED + "Use /pandora stats history first!");
+            return;
+        }
+
+        plugin.getStatsStorage().getMatchHistoryAsync(player.getUniqueId(), after, HISTORY_PAGE_SIZE).whenComplete((page, error) -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                plugin.getLogger().warning("Failed to load match history for " + player.getName() + ": " + cause.getMessage());
+                if (player.isOnline()) {
+                    // The cursor stays, so /pandora stats next retries the same page
+                    player.sendMessage(ChatColor.RED + "Your match history could not be loaded, try again later!");
+                }
+                return;
+            }
+
+            if (!player.isOnline()) {
+                return;
+            }
+
+            if (page.isEmpty()) {
+                historyCursors.remove(player.getUniqueId());
+                player.sendMessage(ChatColor.YELLOW + "No more matches to show!");
+                return;
+            }
+
+            historyCursors.put(player.getUniqueId(), page.get(page.size() - 1));
+            player.sendMessage(ChatColor.GOLD + "=== Match History ===");
+            for (MatchHistoryEntry entry : page) {
+                String result = entry.winner() == null ? ChatColor.YELLOW + "Draw"
+                        : entry.winner().equals(player.getUniqueId()) ? ChatColor.GREEN + "Win" : ChatColor.RED + "Loss";
+                player.sendMessage(result + ChatColor.GRAY + " - " + entry.kitName() + " on " + entry.arenaName()
+                        + " (" + entry.duration() + "s) " + entry.createdAt());
+            }
+
+            if (page.size() == HISTORY_PAGE_SIZE) {
+                player.sendMessage(ChatColor.YELLOW + "/pandora stats next - Older matches");
+            }
+        });
+    }
+
+    private void handleTop(Player player, String[] args) {
+        String board = args.length > 1 ? args[1] : LeaderboardManager.GLOBAL;
+        if (!plugin.getLeaderboardManager().isBoard(board)) {
+            player.sendMessage(ChatColor.RED + "Kit not found!");
+            return;
+        }
+
+        List<Leaderboard.Entry> top = plugin.getLeaderboardManager().getTop(board, 10);
+
+        if (top.isEmpty()) {
+            player.sendMessage(ChatColor.RED + "No rankings yet for " + board + "!");
+            return;
+        }
+
+        player.sendMessage(ChatColor.GOLD + "=== Top Players (" + board + ") ===");
+        for (int i = 0; i < top.size(); i++) {
+            Leaderboard.Entry entry = top.get(i);
+            player.sendMessage(ChatColor.YELLOW + "#" + (i + 1) + " " + ChatColor.WHITE + entry.name()
+                    + ChatColor.GRAY + " - " + entry.rating());
+        }
     }
 
     private void handleSpectate(Player player, String[] args) {
@@ -115,14 +249,55 @@ public class PandoraCommand implements CommandExecutor {
         player.sendMessage(ChatColor.GREEN + "Configuration reloaded!");
     }
 
+    private void handleArena(Player player, String[] args) {
+        if (!player.hasPermission("pandora.admin")) {
+            player.sendMessage(ChatColor.RED + "You don't have permission to use this command!");
+            return;
+        }
+
+        if (args.length < 3) {
+            player.sendMessage(ChatColor.RED + "Usage: /pandora arena <save|reset> <arena>");
+            return;
+        }
+
+        Arena arena = plugin.getArenaManager().getArena(args[2]);
+        if (arena == null) {
+            player.sendMessage(ChatColor.RED + "Arena not found!");
+            return;
+        }
+
+        switch (args[1].toLowerCase()) {
+            case "save":
+                plugin.getArenaManager().saveArenaToConfig(arena);
+                player.sendMessage(ChatColor.GREEN + "Arena saved, writing snapshot...");
+                break;
+            case "reset":
+                ArenaManager.RestoreResult result = plugin.getArenaManager().restoreSnapshot(arena,
+                        () -> player.sendMessage(ChatColor.GREEN + "Arena " + arena.getName() + " has been reset!"));
+                switch (result) {
+                    case STARTED -> player.sendMessage(ChatColor.YELLOW + "Resetting arena " + arena.getName() + "...");
+                    case NO_SNAPSHOT -> player.sendMessage(ChatColor.RED + "No snapshot saved for this arena!");
+                    case IN_USE -> player.sendMessage(ChatColor.RED + "This arena is in use, try again once the match is over!");
+                    case FAILED -> player.sendMessage(ChatColor.RED + "Failed to read the arena snapshot, check the console!");
+                }
+                break;
+            default:
+                player.sendMessage(ChatColor.RED + "Usage: /pandora arena <save|reset> <arena>");
+                break;
+        }
+    }
+
     private void sendHelp(Player player) {
         player.sendMessage(ChatColor.GOLD + "=== Pandora PvP Help ===");
         player.sendMessage(ChatColor.YELLOW + "/pandora queue <kit> [ranked] - Join a queue");
         player.sendMessage(ChatColor.YELLOW + "/pandora leave - Leave queue/match");
         player.sendMessage(ChatColor.YELLOW + "/pandora stats [player] - View stats");
+        player.sendMessage(ChatColor.YELLOW + "/pandora stats history - View your recent matches");
+        player.sendMessage(ChatColor.YELLOW + "/pandora top [kit] - View the top rated players");
         player.sendMessage(ChatColor.YELLOW + "/pandora spectate <player> - Spectate a match");
         if (player.hasPermission("pandora.admin")) {
             player.sendMessage(ChatColor.YELLOW + "/pandora reload - Reload configuration");
+            player.sendMessage(ChatColor.YELLOW + "/pandora arena <save|reset> <arena> - Save or reset an arena snapshot");
         }
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import de.exlll.configlib.NameFormatters;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -23,6 +24,9 @@ public class ArenaConfig {
         private SpawnData blueSpawn = new SpawnData();
         private BoundsData min = new BoundsData();
         private BoundsData max = new BoundsData();
+        private List<String> kits = List.of();
+        private boolean template = false;
+        private double buildLimit = 0.0;
     }
 
     @Configuration
@@ -15,6 +15,7 @@ public class MainConfig {
     private MatchConfig match = new MatchConfig();
     private QueueConfig queue = new QueueConfig();
     private BotConfig bot = new BotConfig();
+    private ArenaSettingsConfig arena = new ArenaSettingsConfig();
     private GeneralConfig general = new GeneralConfig();
 
     @Configuration
@@ -25,6 +26,14 @@ public class MainConfig {
         private String url = "jdbc:sqlite:plugins/Pandora/database.db";
         private String username = "";
         private String password = "";
+        private int poolSize = 10;
+        private long connectionTimeout = 5000;
+        private int flushInterval = 30;
+        private int spoolQueueSize = 256;
+        private int historyRetentionDays = 30;
+        private boolean archiveHistory = true;
+        private int compactionInterval = 60;
+        private int compactionBatchSize = 500;
     }
 
     @Configuration
@@ -35,6 +44,7 @@ public class MainConfig {
         private boolean allowSpectating = true;
         private boolean autoStart = true;
         private boolean teleportAfterMatch = true;
+        private int eloKFactor = 32;
     }
 
     @Configuration
@@ -42,7 +52,12 @@ public class MainConfig {
     @Setter
     public static class QueueConfig {
         private int maxQueueTime = 60;
-        private boolean enableBotMatches = true;
+        private int eloRangeBase = 50;
+        private int eloRangeIncrement = 25;
+        private int eloRangeInterval = 5;
+        private int eloRangeMax = 400;
+        private int matchmakingInterval = 20;
+        private int maxMatchesPerTick = 4;
     }
 
     @Configuration
@@ -59,6 +74,19 @@ public class MainConfig {
         );
     }
 
+    @Configuration
+    @Getter
+    @Setter
+    public static class ArenaSettingsConfig {
+        private int blocksPerTick = 5000;
+        private boolean instancing = false;
+        private String instanceWorld = "pandora_arenas";
+        private int instanceSpacing = 512;
+        private int instanceGridWidth = 32;
+        private int maxInstances = 256;
+        private int maxConcurrentStamps = 4;
+    }
+
     @Configuration
     @Getter
     @Setter
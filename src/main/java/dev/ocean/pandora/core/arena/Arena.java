@@ -1,11 +1,14 @@
 package dev.ocean.pandora.core.arena;
 
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import org.bukkit.Location;
 
+import java.util.List;
+
+// Identity equality on purpose, a reload builds a new Arena with the same values while the old one may still be in use
 @AllArgsConstructor
-@Data
+@Getter
 public class Arena {
     private final String name;
     private final String displayName;
@@ -14,4 +17,10 @@ public class Arena {
     private final Location min;
     private final Location max;
     private final double buildLimit;
-}
\ No newline at end of file
+    // Kit names this arena may host, empty means every kit
+    private final List<String> kits;
+
+    public boolean supports(String kitName) {
+        return kits.isEmpty() || kits.contains(kitName);
+    }
+}
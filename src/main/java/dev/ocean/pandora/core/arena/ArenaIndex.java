@@ -0,0 +1,161 @@
+package dev.ocean.pandora.core.arena;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.*;
+
+/**
+ * Uniform grid over arena bounds, one grid per world. The index is rebuilt
+ * into an immutable snapshot whenever arenas change, so lookups never lock
+ * and never allocate.
+ */
+public class ArenaIndex {
+
+    private static final int CELL_SHIFT = 6;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    public void rebuild(Collection<Arena> arenas) {
+        snapshot = new Snapshot(new ArrayList<>(arenas));
+    }
+
+    public Arena getArenaAt(Location location) {
+        return getArenaAt(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public Arena getArenaAt(World world, int x, int y, int z) {
+        Snapshot current = snapshot;
+        Grid grid = current.grids.get(world.getUID());
+        if (grid == null) {
+            return null;
+        }
+
+        int[] cell = grid.get(x >> CELL_SHIFT, z >> CELL_SHIFT);
+        if (cell == null) {
+            return null;
+        }
+
+        for (int id : cell) {
+            if (current.contains(id, x, y, z)) {
+                return current.arenas[id];
+            }
+        }
+        return null;
+    }
+
+    // Falls back to the arena's own locations when it is not indexed, e.g. after a reload
+    public boolean contains(Arena arena, World world, int x, int y, int z) {
+        Snapshot current = snapshot;
+        Integer id = current.ids.get(arena);
+
+        if (id == null) {
+            Location min = arena.getMin();
+            Location max = arena.getMax();
+            return world == min.getWorld()
+                    && x >= min.getBlockX() && x <= max.getBlockX()
+                    && y >= min.getBlockY() && y <= max.getBlockY()
+                    && z >= min.getBlockZ() && z <= max.getBlockZ();
+        }
+
+        return world == current.worlds[id] && current.contains(id, x, y, z);
+    }
+
+    private static final class Snapshot {
+        private final Arena[] arenas;
+        private final World[] worlds;
+        // minX, minY, minZ, maxX, maxY, maxZ per arena
+        private final int[] bounds;
+        private final Map<Arena, Integer> ids = new IdentityHashMap<>();
+        private final Map<UUID, Grid> grids = new HashMap<>();
+
+        private Snapshot(List<Arena> source) {
+            int count = source.size();
+            arenas = source.toArray(new Arena[0]);
+            worlds = new World[count];
+            bounds = new int[count * 6];
+
+            Map<UUID, Map<Long, List<Integer>>> cells = new HashMap<>();
+
+            for (int id = 0; id < count; id++) {
+                Arena arena = arenas[id];
+                Location min = arena.getMin();
+                Location max = arena.getMax();
+                int offset = id * 6;
+
+                worlds[id] = min.getWorld();
+                bounds[offset] = Math.min(min.getBlockX(), max.getBlockX());
+                bounds[offset + 1] = Math.min(min.getBlockY(), max.getBlockY());
+                bounds[offset + 2] = Math.min(min.getBlockZ(), max.getBlockZ());
+                bounds[offset + 3] = Math.max(min.getBlockX(), max.getBlockX());
+                bounds[offset + 4] = Math.max(min.getBlockY(), max.getBlockY());
+                bounds[offset + 5] = Math.max(min.getBlockZ(), max.getBlockZ());
+                ids.put(arena, id);
+
+                if (worlds[id] == null) {
+                    continue;
+                }
+
+                Map<Long, List<Integer>> worldCells = cells.computeIfAbsent(worlds[id].getUID(), k -> new HashMap<>());
+                for (int cellX = bounds[offset] >> CELL_SHIFT; cellX <= bounds[offset + 3] >> CELL_SHIFT; cellX++) {
+                    for (int cellZ = bounds[offset + 2] >> CELL_SHIFT; cellZ <= bounds[offset + 5] >> CELL_SHIFT; cellZ++) {
+                        worldCells.computeIfAbsent(Grid.key(cellX, cellZ), k -> new ArrayList<>()).add(id);
+                    }
+                }
+            }
+
+            cells.forEach((world, worldCells) -> grids.put(world, new Grid(worldCells)));
+        }
+
+        private boolean contains(int id, int x, int y, int z) {
+            int offset = id * 6;
+            return x >= bounds[offset] && x <= bounds[offset + 3]
+                    && y >= bounds[offset + 1] && y <= bounds[offset + 4]
+                    && z >= bounds[offset + 2] && z <= bounds[offset + 5];
+        }
+    }
+
+    // Open addressing map from packed cell coordinates to arena ids
+    private static final class Grid {
+        private final long[] keys;
+        private final int[][] values;
+        private final int mask;
+
+        private Grid(Map<Long, List<Integer>> cells) {
+            int capacity = Integer.highestOneBit(Math.max(4, cells.size() * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new int[capacity][];
+            mask = capacity - 1;
+
+            cells.forEach((key, ids) -> {
+                int slot = slot(key);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = ids.stream().mapToInt(Integer::intValue).toArray();
+            });
+        }
+
+        private static long key(int cellX, int cellZ) {
+            return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+        }
+
+        private int slot(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        }
+
+        private int[] get(int cellX, int cellZ) {
+            long key = key(cellX, cellZ);
+            int slot = slot(key);
+
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dev.ocean.pandora.core.arena;
+
+import java.util.*;
+
+/**
+ * Free lists of arenas grouped by the kits they support. Every arena lives in
+ * exactly one group, and each kit knows the groups it can draw from, so
+ * reserving and releasing never scan the arena list.
+ */
+public class ArenaPool {
+
+    private final ArrayDeque<Arena> shared = new ArrayDeque<>();
+    private final Map<List<String>, ArrayDeque<Arena>> groups = new HashMap<>();
+    private final Map<String, List<ArrayDeque<Arena>>> kitGroups = new HashMap<>();
+    private final Set<Arena> reserved = new HashSet<>();
+    private final Set<Arena> arenas = new HashSet<>();
+    // Reloaded arenas whose previous copy is still hosting a match, keyed by name
+    private final Map<String, Arena> successors = new HashMap<>();
+
+    public synchronized void add(Arena arena) {
+        if (!arenas.add(arena)) {
+            return;
+        }
+
+        if (isHeld(arena.getName())) {
+            successors.put(arena.getName(), arena);
+        } else {
+            freeList(arena).add(arena);
+        }
+    }
+
+    public synchronized void remove(Arena arena) {
+        if (arenas.remove(arena) && !reserved.contains(arena) && !successors.remove(arena.getName(), arena)) {
+            freeList(arena).remove(arena);
+        }
+    }
+
+    // Reservations survive, matches started before a reload still release their arenas afterwards
+    public synchronized void clear() {
+        shared.clear();
+        groups.clear();
+        kitGroups.clear();
+        successors.clear();
+        arenas.clear();
+    }
+
+    public synchronized Arena reserve(String kitName) {
+        Arena arena = null;
+
+        // Prefer arenas dedicated to the kit over ones any kit can use
+        List<ArrayDeque<Arena>> dedicated = kitGroups.get(kitName);
+        if (dedicated != null) {
+            for (ArrayDeque<Arena> group : dedicated) {
+                arena = group.poll();
+                if (arena != null) {
+                    break;
+                }
+            }
+        }
+
+        if (arena == null) {
+            arena = shared.poll();
+        }
+
+        if (arena != null) {
+            reserved.add(arena);
+        }
+        return arena;
+    }
+
+    // Takes a specific arena out of circulation, false when a match already holds it
+    public synchronized boolean reserve(Arena arena) {
+        if (isReserved(arena)) {
+            return false;
+        }
+        if (arenas.contains(arena)) {
+            freeList(arena).remove(arena);
+            reserved.add(arena);
+        }
+        return true;
+    }
+
+    public synchronized void release(Arena arena) {
+        if (!reserved.remove(arena)) {
+            return;
+        }
+
+        if (arenas.contains(arena)) {
+            freeList(arena).add(arena);
+            return;
+        }
+
+        // Dropped by a reload, the copy that replaced it can take its place now
+        Arena successor = successors.remove(arena.getName());
+        if (successor != null) {
+            freeList(successor).add(successor);
+        }
+    }
+
+    public synchronized boolean isReserved(Arena arena) {
+        return reserved.contains(arena) || successors.get(arena.getName()) == arena;
+    }
+
+    public synchronized int getFreeCount() {
+        int free = shared.size();
+        for (ArrayDeque<Arena> group : groups.values()) {
+            free += group.size();
+        }
+        return free;
+    }
+
+    private boolean isHeld(String name) {
+        for (Arena arena : reserved) {
+            if (arena.getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ArrayDeque<Arena> freeList(Arena arena) {
+        if (arena.getKits().isEmpty()) {
+            return shared;
+        }
+
+        List<String> key = arena.getKits().stream().sorted().toList();
+        return groups.computeIfAbsent(key, k -> {
+            ArrayDeque<Arena> group = new ArrayDeque<>();
+            k.forEach(kitName -> kitGroups.computeIfAbsent(kitName, n -> new ArrayList<>()).add(group));
+            return group;
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package dev.ocean.pandora.core.arena.instance;
+
+import dev.ocean.pandora.core.block.BlockTask;
+import dev.ocean.pandora.utils.BlockPos;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+
+// Places a precomputed list of blocks into the instance world
+public class ArenaStamp implements BlockTask {
+
+    private final World world;
+    private final long[] positions;
+    private final BlockData[] blocks;
+    private final Runnable onComplete;
+    private int cursor = 0;
+
+    public ArenaStamp(World world, long[] positions, BlockData[] blocks, Runnable onComplete) {
+        this.world = world;
+        this.positions = positions;
+        this.blocks = blocks;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public int run(int budget) {
+        // cursor + budget overflows for large budgets, compare against what is left instead
+        int end = budget >= positions.length - cursor ? positions.length : cursor + budget;
+        int start = cursor;
+
+        for (; cursor < end; cursor++) {
+            long packed = positions[cursor];
+            world.getBlockAt(BlockPos.unpackX(packed), BlockPos.unpackY(packed), BlockPos.unpackZ(packed))
+                    .setBlockData(blocks[cursor], false);
+        }
+
+        return cursor - start;
+    }
+
+    @Override
+    public boolean isDone() {
+        return cursor >= positions.length;
+    }
+
+    @Override
+    public void complete() {
+        onComplete.run();
+    }
+}
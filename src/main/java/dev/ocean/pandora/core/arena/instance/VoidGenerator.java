@@ -0,0 +1,16 @@
+package dev.ocean.pandora.core.arena.instance;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.generator.ChunkGenerator;
+
+import java.util.Random;
+
+// Generates empty chunks, arena instances are the only blocks in the world
+public class VoidGenerator extends ChunkGenerator {
+
+    @Override
+    public Location getFixedSpawnLocation(World world, Random random) {
+        return new Location(world, 0.5, 64.0, 0.5);
+    }
+}
@@ -0,0 +1,248 @@
+package dev.ocean.pandora.core.arena.snapshot;
+
+import dev.ocean.pandora.core.block.BlockTask;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary arena snapshot.
+ *
+ * <pre>
+ * int magic, short version
+ * int minX, minY, minZ, maxX, maxY, maxZ
+ * int paletteSize, then per entry: short length, UTF-8 block data string
+ * int sectionCount, then per chunk column:
+ *   int chunkX, int chunkZ, byte bitsPerEntry, int longCount, long[longCount]
+ * </pre>
+ *
+ * A section covers the part of the bounds inside one chunk column. Entries are
+ * palette indices ordered y, z, x and never span two longs.
+ */
+public class ArenaSnapshot {
+
+    private static final int MAGIC = 0x50534E50;
+    private static final short VERSION = 1;
+
+    // Encodes chunk snapshots taken on the main thread, safe to call asynchronously
+    public static void write(Path path, List<ChunkSnapshot> chunks,
+                             int minX, int minY, int minZ, int maxX, int maxY, int maxZ) throws IOException {
+        Map<String, Integer> palette = new LinkedHashMap<>();
+        List<int[]> sectionHeaders = new ArrayList<>();
+        List<int[]> sectionEntries = new ArrayList<>();
+
+        for (ChunkSnapshot chunk : chunks) {
+            int x0 = Math.max(minX, chunk.getX() << 4);
+            int x1 = Math.min(maxX, (chunk.getX() << 4) + 15);
+            int z0 = Math.max(minZ, chunk.getZ() << 4);
+            int z1 = Math.min(maxZ, (chunk.getZ() << 4) + 15);
+            if (x0 > x1 || z0 > z1) {
+                continue;
+            }
+
+            int[] entries = new int[(x1 - x0 + 1) * (z1 - z0 + 1) * (maxY - minY + 1)];
+            int index = 0;
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    for (int x = x0; x <= x1; x++) {
+                        String state = chunk.getBlockData(x & 15, y, z & 15).getAsString();
+                        entries[index++] = palette.computeIfAbsent(state, k -> palette.size());
+                    }
+                }
+            }
+
+            sectionHeaders.add(new int[]{chunk.getX(), chunk.getZ()});
+            sectionEntries.add(entries);
+        }
+
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(palette.size() - 1));
+        int perLong = 64 / bits;
+
+        Files.createDirectories(path.getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(minX);
+            out.writeInt(minY);
+            out.writeInt(minZ);
+            out.writeInt(maxX);
+            out.writeInt(maxY);
+            out.writeInt(maxZ);
+
+            out.writeInt(palette.size());
+            for (String state : palette.keySet()) {
+                byte[] bytes = state.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(sectionEntries.size());
+            for (int i = 0; i < sectionEntries.size(); i++) {
+                int[] entries = sectionEntries.get(i);
+                int longCount = (entries.length + perLong - 1) / perLong;
+
+                out.writeInt(sectionHeaders.get(i)[0]);
+                out.writeInt(sectionHeaders.get(i)[1]);
+                out.writeByte(bits);
+                out.writeInt(longCount);
+
+                for (int word = 0; word < longCount; word++) {
+                    long packed = 0L;
+                    for (int slot = 0; slot < perLong; slot++) {
+                        int entry = word * perLong + slot;
+                        if (entry >= entries.length) {
+                            break;
+                        }
+                        packed |= (long) entries[entry] << (slot * bits);
+                    }
+                    out.writeLong(packed);
+                }
+            }
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Maps the file and returns a task that streams its sections into the world
+    public static BlockTask restore(Path path, World world, Runnable onComplete) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new IOException("Not an arena snapshot: " + path);
+        }
+
+        return new Restore(buffer, world, onComplete);
+    }
+
+    private static class Restore implements BlockTask {
+        private final ByteBuffer buffer;
+        private final World world;
+        private final Runnable onComplete;
+        private final int minX, minY, minZ, maxX, maxZ;
+        private final int height;
+        private final BlockData[] palette;
+        private int sectionsRemaining;
+
+        // Current section
+        private int x0, x1, z0, z1;
+        private int bits, perLong;
+        private long mask;
+        private int dataOffset;
+        private int entryIndex = 0;
+        private int entryCount = 0;
+
+        private Restore(ByteBuffer buffer, World world, Runnable onComplete) {
+            this.buffer = buffer;
+            this.world = world;
+            this.onComplete = onComplete;
+
+            minX = buffer.getInt();
+            minY = buffer.getInt();
+            minZ = buffer.getInt();
+            maxX = buffer.getInt();
+            int maxY = buffer.getInt();
+            maxZ = buffer.getInt();
+            height = maxY - minY + 1;
+
+            palette = new BlockData[buffer.getInt()];
+            for (int i = 0; i < palette.length; i++) {
+                byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(bytes);
+                palette[i] = parse(new String(bytes, StandardCharsets.UTF_8));
+            }
+
+            sectionsRemaining = buffer.getInt();
+        }
+
+        private static BlockData parse(String state) {
+            try {
+                return Bukkit.createBlockData(state);
+            } catch (IllegalArgumentException e) {
+                return Material.AIR.createBlockData();
+            }
+        }
+
+        private void nextSection() {
+            int chunkX = buffer.getInt();
+            int chunkZ = buffer.getInt();
+            bits = buffer.get();
+            int longCount = buffer.getInt();
+
+            x0 = Math.max(minX, chunkX << 4);
+            x1 = Math.min(maxX, (chunkX << 4) + 15);
+            z0 = Math.max(minZ, chunkZ << 4);
+            z1 = Math.min(maxZ, (chunkZ << 4) + 15);
+            perLong = 64 / bits;
+            mask = (1L << bits) - 1;
+            dataOffset = buffer.position();
+            entryIndex = 0;
+            entryCount = (x1 - x0 + 1) * (z1 - z0 + 1) * height;
+
+            buffer.position(dataOffset + longCount * 8);
+            sectionsRemaining--;
+        }
+
+        @Override
+        public int run(int budget) {
+            int applied = 0;
+
+            while (applied < budget) {
+                if (entryIndex >= entryCount) {
+                    if (sectionsRemaining <= 0) {
+                        break;
+                    }
+                    nextSection();
+                    continue;
+                }
+
+                int index = entryIndex++;
+                long word = buffer.getLong(dataOffset + (index / perLong) * 8);
+                int state = (int) ((word >>> ((index % perLong) * bits)) & mask);
+
+                int width = x1 - x0 + 1;
+                int depth = z1 - z0 + 1;
+                int x = x0 + index % width;
+                int z = z0 + (index / width) % depth;
+                int y = minY + index / (width * depth);
+
+                world.getBlockAt(x, y, z).setBlockData(palette[state], false);
+                applied++;
+            }
+
+            return applied;
+        }
+
+        @Override
+        public boolean isDone() {
+            return entryIndex >= entryCount && sectionsRemaining <= 0;
+        }
+
+        @Override
+        public void complete() {
+            onComplete.run();
+        }
+    }
+}
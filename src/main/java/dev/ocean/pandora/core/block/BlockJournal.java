@@ -0,0 +1,108 @@
+package dev.ocean.pandora.core.block;
+
+import dev.ocean.pandora.utils.BlockPos;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the state a block had before each change as a packed position and
+ * a palette index. Rolling back replays the journal newest first, so the
+ * oldest recorded state of a position is the one that ends up in the world.
+ */
+public class BlockJournal {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] positions;
+    private int[] states;
+    private int size = 0;
+    private final Map<BlockData, Integer> paletteIndex = new HashMap<>();
+    private final List<BlockData> palette = new ArrayList<>();
+
+    public synchronized void record(int x, int y, int z, BlockData previous) {
+        if (positions == null) {
+            positions = new long[INITIAL_CAPACITY];
+            states = new int[INITIAL_CAPACITY];
+        } else if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            states = Arrays.copyOf(states, size * 2);
+        }
+
+        Integer state = paletteIndex.get(previous);
+        if (state == null) {
+            state = palette.size();
+            palette.add(previous);
+            paletteIndex.put(previous, state);
+        }
+
+        positions[size] = BlockPos.pack(x, y, z);
+        states[size] = state;
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Hands the recorded changes to a rollback task and clears the journal
+    public synchronized BlockTask rollback(World world, Runnable onComplete) {
+        BlockTask task = new Rollback(world, positions, states, size, palette.toArray(new BlockData[0]), onComplete);
+        positions = null;
+        states = null;
+        size = 0;
+        paletteIndex.clear();
+        palette.clear();
+        return task;
+    }
+
+    private static class Rollback implements BlockTask {
+        private final World world;
+        private final long[] positions;
+        private final int[] states;
+        private final BlockData[] palette;
+        private final Runnable onComplete;
+        private int cursor;
+
+        private Rollback(World world, long[] positions, int[] states, int size, BlockData[] palette, Runnable onComplete) {
+            this.world = world;
+            this.positions = positions;
+            this.states = states;
+            this.palette = palette;
+            this.onComplete = onComplete;
+            this.cursor = size - 1;
+        }
+
+        @Override
+        public int run(int budget) {
+            int applied = 0;
+
+            for (; cursor >= 0 && applied < budget; cursor--, applied++) {
+                long packed = positions[cursor];
+                world.getBlockAt(BlockPos.unpackX(packed), BlockPos.unpackY(packed), BlockPos.unpackZ(packed))
+                        .setBlockData(palette[states[cursor]], false);
+            }
+
+            return applied;
+        }
+
+        @Override
+        public boolean isDone() {
+            return cursor < 0;
+        }
+
+        @Override
+        public void complete() {
+            onComplete.run();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package dev.ocean.pandora.core.block;
+
+public interface BlockTask {
+
+    // Applies at most budget block changes and returns how many were applied
+    int run(int budget);
+
+    boolean isDone();
+
+    default void complete() {
+    }
+}
@@ -0,0 +1,51 @@
+package dev.ocean.pandora.core.kit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class KitCounters {
+
+    private final AtomicInteger unrankedQueued = new AtomicInteger();
+    private final AtomicInteger rankedQueued = new AtomicInteger();
+    private final AtomicInteger unrankedPlaying = new AtomicInteger();
+    private final AtomicInteger rankedPlaying = new AtomicInteger();
+
+    public void addQueued(boolean ranked, int delta) {
+        (ranked ? rankedQueued : unrankedQueued).addAndGet(delta);
+    }
+
+    public void addPlaying(boolean ranked, int delta) {
+        (ranked ? rankedPlaying : unrankedPlaying).addAndGet(delta);
+    }
+
+    public int getQueued(boolean ranked) {
+        return (ranked ? rankedQueued : unrankedQueued).get();
+    }
+
+    public int getPlaying(boolean ranked) {
+        return (ranked ? rankedPlaying : unrankedPlaying).get();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(unrankedQueued.get(), rankedQueued.get(), unrankedPlaying.get(), rankedPlaying.get());
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class Snapshot {
+        private final int unrankedQueued;
+        private final int rankedQueued;
+        private final int unrankedPlaying;
+        private final int rankedPlaying;
+
+        public int getQueued() {
+            return unrankedQueued + rankedQueued;
+        }
+
+        public int getPlaying() {
+            return unrankedPlaying + rankedPlaying;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package dev.ocean.pandora.core.leaderboard;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Order-statistic treap sorted by rating (highest first), every node knows its subtree size
+// so rank lookups and top-N are O(log n) instead of a sorted scan over every player
+public class Leaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingInt(Entry::rating).reversed()
+            .thenComparing(Entry::uuid);
+
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private Node root;
+
+    public synchronized void update(UUID uuid, String name, int rating) {
+        Node existing = nodes.get(uuid);
+        if (existing != null) {
+            if (existing.entry.rating() == rating) {
+                existing.entry = new Entry(uuid, name, rating);
+                return;
+            }
+            root = remove(root, existing.entry);
+        }
+
+        Node node = new Node(new Entry(uuid, name, rating));
+        nodes.put(uuid, node);
+        root = insert(root, node);
+    }
+
+    public synchronized void remove(UUID uuid) {
+        Node existing = nodes.remove(uuid);
+        if (existing != null) {
+            root = remove(root, existing.entry);
+        }
+    }
+
+    // 1-based position, -1 when the player is not on the board
+    public synchronized int getRank(UUID uuid) {
+        Node target = nodes.get(uuid);
+        if (target == null) {
+            return -1;
+        }
+
+        int rank = 0;
+        Node current = root;
+        while (current != null) {
+            int compare = ORDER.compare(target.entry, current.entry);
+            if (compare < 0) {
+                current = current.left;
+            } else if (compare > 0) {
+                rank += size(current.left) + 1;
+                current = current.right;
+            } else {
+                return rank + size(current.left) + 1;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized Entry getEntry(UUID uuid) {
+        Node node = nodes.get(uuid);
+        return node == null ? null : node.entry;
+    }
+
+    public synchronized List<Entry> getTop(int limit) {
+        List<Entry> top = new ArrayList<>(Math.min(limit, nodes.size()));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node current = root;
+
+        while ((current != null || !stack.isEmpty()) && top.size() < limit) {
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
+            current = stack.pop();
+            top.add(current.entry);
+            current = current.right;
+        }
+        return top;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    // Builds the whole tree from unsorted entries in O(n log n), used at startup
+    public synchronized void rebuild(List<Entry> entries) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(ORDER);
+
+        nodes.clear();
+        Deque<Node> spine = new ArrayDeque<>();
+        for (Entry entry : sorted) {
+            if (nodes.containsKey(entry.uuid())) {
+                continue;
+            }
+
+            // Sorted input lets us build the Cartesian tree along its right spine
+            Node node = new Node(entry);
+            nodes.put(entry.uuid(), node);
+
+            Node last = null;
+            while (!spine.isEmpty() && spine.peek().priority < node.priority) {
+                last = spine.pop();
+            }
+            node.left = last;
+            if (!spine.isEmpty()) {
+                spine.peek().right = node;
+            }
+            spine.push(node);
+        }
+
+        root = spine.peekLast();
+        recount(root);
+    }
+
+    private static int recount(Node node) {
+        if (node == null) {
+            return 0;
+        }
+        node.size = recount(node.left) + recount(node.right) + 1;
+        return node.size;
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+
+        if (node.priority > root.priority) {
+            Node[] parts = split(root, node.entry);
+            node.left = parts[0];
+            node.right = parts[1];
+            node.update();
+            return node;
+        }
+
+        if (ORDER.compare(node.entry, root.entry) < 0) {
+            root.left = insert(root.left, node);
+        } else {
+            root.right = insert(root.right, node);
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node remove(Node root, Entry entry) {
+        if (root == null) {
+            return null;
+        }
+
+        int compare = ORDER.compare(entry, root.entry);
+        if (compare == 0) {
+            return merge(root.left, root.right);
+        }
+
+        if (compare < 0) {
+            root.left = remove(root.left, entry);
+        } else {
+            root.right = remove(root.right, entry);
+        }
+        root.update();
+        return root;
+    }
+
+    // Splits into entries ordered before the key and the rest
+    private static Node[] split(Node root, Entry key) {
+        if (root == null) {
+            return new Node[]{null, null};
+        }
+
+        if (ORDER.compare(root.entry, key) < 0) {
+            Node[] parts = split(root.right, key);
+            root.right = parts[0];
+            root.update();
+            return new Node[]{root, parts[1]};
+        }
+
+        Node[] parts = split(root.left, key);
+        root.left = parts[1];
+        root.update();
+        return new Node[]{parts[0], root};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    public record Entry(UUID uuid, String name, int rating) {
+    }
+
+    private static final class Node {
+        private Entry entry;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Entry entry) {
+            this.entry = entry;
+        }
+
+        private void update() {
+            size = size(left) + size(right) + 1;
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package dev.ocean.pandora.core.match;
 
+import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.core.arena.Arena;
+import dev.ocean.pandora.core.block.BlockJournal;
 import dev.ocean.pandora.core.kit.Kit;
 import dev.ocean.pandora.core.player.User;
 import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Getter
 public abstract class Match {
@@ -15,6 +25,16 @@ public abstract class Match {
     private final Arena arena;
     private final List<User> red;
     private final List<User> blue;
+    @Setter
+    private boolean ranked;
+    private final BlockJournal journal = new BlockJournal();
+    private final List<Chunk> ticketedChunks = new ArrayList<>();
+    private boolean chunksReleased = false;
+    private final AtomicReference<MatchState> state = new AtomicReference<>(MatchState.PREPARING);
+    private final long startTime = System.currentTimeMillis();
+    // The winning side, left null for a draw
+    @Setter
+    private List<User> winners;
 
     public Match(Kit kit, Arena arena, List<User> red, List<User> blue) {
         this.kit = kit;
@@ -24,12 +44,102 @@ public abstract class Match {
         this.uuid = UUID.randomUUID();
     }
 
+    public int getPlayerCount() {
+        return red.size() + blue.size();
+    }
+
+    public List<User> getOpponents(User user) {
+        return red.contains(user) ? blue : red;
+    }
+
+    public int getDurationSeconds() {
+        return (int) ((System.currentTimeMillis() - startTime) / 1000L);
+    }
+
     public abstract void start();
     public abstract void end();
     public abstract void cleanup();
 
-    protected void teleportPlayers() {
-        red.forEach(it -> it.toPlayer().teleport(arena.getRedSpawn()));
-        blue.forEach(it -> it.toPlayer().teleport(arena.getBlueSpawn()));
+    public MatchState getState() {
+        return state.get();
+    }
+
+    public boolean isEnded() {
+        return state.get() == MatchState.ENDED;
+    }
+
+    // Moves between live phases, refused once the match has ended
+    protected boolean setState(MatchState next) {
+        if (next == MatchState.ENDED) {
+            throw new IllegalArgumentException("Use MatchManager#endMatch to end a match");
+        }
+
+        MatchState current;
+        do {
+            current = state.get();
+            if (current == MatchState.ENDED) {
+                return false;
+            }
+        } while (!state.compareAndSet(current, next));
+        return true;
+    }
+
+    // The single terminal transition, only the first caller gets true
+    public boolean markEnded() {
+        return state.getAndSet(MatchState.ENDED) != MatchState.ENDED;
+    }
+
+    // Called once a second by the MatchManager ticker, matches advance their own timers here
+    public void tick() {
+    }
+
+    // Loads and tickets the arena chunks without blocking, then moves both sides in
+    public CompletableFuture<Void> prepare() {
+        World world = arena.getMin().getWorld();
+        int minChunkX = Math.min(arena.getMin().getBlockX(), arena.getMax().getBlockX()) >> 4;
+        int maxChunkX = Math.max(arena.getMin().getBlockX(), arena.getMax().getBlockX()) >> 4;
+        int minChunkZ = Math.min(arena.getMin().getBlockZ(), arena.getMax().getBlockZ()) >> 4;
+        int maxChunkZ = Math.max(arena.getMin().getBlockZ(), arena.getMax().getBlockZ()) >> 4;
+
+        List<CompletableFuture<Chunk>> loads = new ArrayList<>();
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                loads.add(world.getChunkAtAsync(chunkX, chunkZ));
+            }
+        }
+
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).thenCompose(ignored -> {
+            // The match may have ended while the chunks were loading, its arena could already be reset or reused
+            if (chunksReleased || getState() != MatchState.PREPARING) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            loads.forEach(load -> {
+                Chunk chunk = load.join();
+                chunk.addPluginChunkTicket(Pandora.getInstance());
+                ticketedChunks.add(chunk);
+            });
+            return teleportPlayers();
+        });
+    }
+
+    public void releaseChunks() {
+        chunksReleased = true;
+        ticketedChunks.forEach(chunk -> chunk.removePluginChunkTicket(Pandora.getInstance()));
+        ticketedChunks.clear();
+    }
+
+    protected CompletableFuture<Void> teleportPlayers() {
+        List<CompletableFuture<Boolean>> teleports = new ArrayList<>();
+        red.forEach(it -> teleport(it, arena.getRedSpawn(), teleports));
+        blue.forEach(it -> teleport(it, arena.getBlueSpawn(), teleports));
+        return CompletableFuture.allOf(teleports.toArray(new CompletableFuture[0]));
+    }
+
+    private void teleport(User user, Location location, List<CompletableFuture<Boolean>> teleports) {
+        Player player = user.toPlayer();
+        if (player != null) {
+            teleports.add(player.teleportAsync(location));
+        }
     }
-}
\ No newline at end of file
+}
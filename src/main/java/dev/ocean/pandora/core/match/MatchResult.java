@@ -0,0 +1,52 @@
+package dev.ocean.pandora.core.match;
+
+import dev.ocean.pandora.core.player.User;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+// Immutable snapshot of a finished 1v1, built on the main thread and consumed by the result writer
+public record MatchResult(
+        UUID matchUuid,
+        String kitName,
+        String arenaName,
+        boolean ranked,
+        UUID player1,
+        String player1Name,
+        UUID player2,
+        String player2Name,
+        UUID winner,
+        int duration,
+        // When the match finished, so a delayed write still records the real time
+        long endedAt
+) {
+
+    public static MatchResult of(Match match) {
+        if (match.getRed().isEmpty() || match.getBlue().isEmpty()) {
+            return null;
+        }
+
+        User first = match.getRed().get(0);
+        User second = match.getBlue().get(0);
+        User winner = match.getWinners() == null || match.getWinners().isEmpty() ? null : match.getWinners().get(0);
+
+        return new MatchResult(
+                match.getUuid(),
+                match.getKit().getName(),
+                match.getArena().getName(),
+                match.isRanked(),
+                first.getUuid(),
+                nameOf(first),
+                second.getUuid(),
+                nameOf(second),
+                winner != null ? winner.getUuid() : null,
+                match.getDurationSeconds(),
+                System.currentTimeMillis()
+        );
+    }
+
+    private static String nameOf(User user) {
+        Player player = user.toPlayer();
+        return player != null ? player.getName() : null;
+    }
+}
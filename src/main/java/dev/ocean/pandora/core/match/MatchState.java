@@ -0,0 +1,9 @@
+package dev.ocean.pandora.core.match;
+
+public enum MatchState {
+    PREPARING,
+    COUNTDOWN,
+    RUNNING,
+    ROUND_ENDING,
+    ENDED
+}
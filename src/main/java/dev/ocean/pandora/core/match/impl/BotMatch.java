@@ -3,6 +3,7 @@ package dev.ocean.pandora.core.match.impl;
 import dev.ocean.pandora.core.arena.Arena;
 import dev.ocean.pandora.core.kit.Kit;
 import dev.ocean.pandora.core.match.Match;
+import dev.ocean.pandora.core.match.MatchState;
 import dev.ocean.pandora.core.player.User;
 import lombok.Getter;
 
@@ -21,7 +22,8 @@ public class BotMatch extends Match {
 
     @Override
     public void start() {
-        teleportPlayers();
+        if (!setState(MatchState.RUNNING)) return;
+
         spawnBot();
     }
 
@@ -32,7 +34,7 @@ public class BotMatch extends Match {
 
     @Override
     public void cleanup() {
-        removeBot();
+        // The bot is already removed in end()
     }
 
     private void spawnBot() {
@@ -4,13 +4,13 @@ import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.core.arena.Arena;
 import dev.ocean.pandora.core.kit.Kit;
 import dev.ocean.pandora.core.match.Match;
+import dev.ocean.pandora.core.match.MatchState;
 import dev.ocean.pandora.core.player.User;
 import dev.ocean.pandora.core.player.UserStatus;
 import dev.ocean.pandora.utils.StringUtils;
 import lombok.Getter;
 import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.List;
 
@@ -24,9 +24,8 @@ public class OneVersusOneMatch extends Match {
     private final Pandora plugin;
     private int redHits = 0;
     private int blueHits = 0;
-    private boolean started = false;
-    private BukkitRunnable countdownTask;
-    private BukkitRunnable matchTask;
+    private int countdown = 0;
+    private int timeElapsed = 0;
 
     public OneVersusOneMatch(Kit kit, Arena arena, List<User> red, List<User> blue) {
         super(kit, arena, red, blue);
@@ -35,9 +34,6 @@ public class OneVersusOneMatch extends Match {
 
     @Override
     public void start() {
-        // Teleport players
-        teleportPlayers();
-
         // Check if this is a boxing match
         if (isBoxingKit()) {
             startBoxingMatch();
@@ -61,6 +57,8 @@ public class OneVersusOneMatch extends Match {
     }
 
     private void startRegularMatch() {
+        if (!setState(MatchState.RUNNING)) return;
+
         // Give kit items
         giveKitItems();
 
@@ -92,72 +90,74 @@ public class OneVersusOneMatch extends Match {
     }
 
     private void startBoxingCountdown() {
-        countdownTask = new BukkitRunnable() {
-            private int countdown = COUNTDOWN_SECONDS;
-
-            @Override
-            public void run() {
-                if (countdown <= 0) {
-                    started = true;
-                    getAllPlayers().forEach(user -> {
-                        Player player = user.toPlayer();
-                        if (player != null) {
-                            player.sendTitle(
-                                    StringUtils.handle("&a&lFIGHT!"),
-                                    StringUtils.handle("&7Good luck!"),
-                                    10, 40, 10
-                            );
-                            player.sendMessage(StringUtils.handle("&a&lThe match has started!"));
-                        }
-                    });
-                    startBoxingMatchTimer();
-                    cancel();
-                    return;
-                }
+        if (!setState(MatchState.COUNTDOWN)) return;
 
-                getAllPlayers().forEach(user -> {
-                    Player player = user.toPlayer();
-                    if (player != null) {
-                        player.sendTitle(
-                                StringUtils.handle("&e&l" + countdown),
-                                StringUtils.handle("&7Get ready to fight!"),
-                                0, 25, 0
-                        );
-                    }
-                });
-
-                countdown--;
-            }
-        };
-        countdownTask.runTaskTimer(plugin, 0L, 20L);
+        countdown = COUNTDOWN_SECONDS;
+        tickCountdown();
     }
 
-    private void startBoxingMatchTimer() {
-        matchTask = new BukkitRunnable() {
-            private int timeElapsed = 0;
-            private final int maxTime = plugin.getConfigManager().getMatchTimeLimit();
+    // Driven once a second by the MatchManager ticker
+    @Override
+    public void tick() {
+        if (!isBoxingKit()) return;
 
-            @Override
-            public void run() {
-                timeElapsed++;
+        if (getState() == MatchState.COUNTDOWN) {
+            tickCountdown();
+        } else if (getState() == MatchState.RUNNING) {
+            tickMatchTimer();
+        }
+    }
 
-                // Send scoreboard updates every 5 seconds
-                if (timeElapsed % 5 == 0) {
-                    updateBoxingScoreboard();
-                }
+    private void tickCountdown() {
+        if (countdown <= 0) {
+            if (!setState(MatchState.RUNNING)) return;
 
-                // Check for time limit
-                if (maxTime > 0 && timeElapsed >= maxTime) {
-                    endBoxingByTimeLimit();
-                    cancel();
+            timeElapsed = 0;
+            getAllPlayers().forEach(user -> {
+                Player player = user.toPlayer();
+                if (player != null) {
+                    player.sendTitle(
+                            StringUtils.handle("&a&lFIGHT!"),
+                            StringUtils.handle("&7Good luck!"),
+                            10, 40, 10
+                    );
+                    player.sendMessage(StringUtils.handle("&a&lThe match has started!"));
                 }
+            });
+            return;
+        }
+
+        getAllPlayers().forEach(user -> {
+            Player player = user.toPlayer();
+            if (player != null) {
+                player.sendTitle(
+                        StringUtils.handle("&e&l" + countdown),
+                        StringUtils.handle("&7Get ready to fight!"),
+                        0, 25, 0
+                );
             }
-        };
-        matchTask.runTaskTimer(plugin, 20L, 20L);
+        });
+
+        countdown--;
+    }
+
+    private void tickMatchTimer() {
+        timeElapsed++;
+
+        // Send scoreboard updates every 5 seconds
+        if (timeElapsed % 5 == 0) {
+            updateBoxingScoreboard();
+        }
+
+        // Check for time limit
+        int maxTime = plugin.getConfigManager().getMatchTimeLimit();
+        if (maxTime > 0 && timeElapsed >= maxTime) {
+            endBoxingByTimeLimit();
+        }
     }
 
     public void registerHit(User attacker) {
-        if (!isBoxingKit() || !started) return;
+        if (!isBoxingKit() || !isStarted()) return;
 
         boolean isRed = getRed().contains(attacker);
 
@@ -220,7 +220,8 @@ public class OneVersusOneMatch extends Match {
             }
         });
 
-        end();
+        setWinners(winners);
+        plugin.getMatchManager().endMatch(getUuid());
     }
 
     private void endBoxingByTimeLimit() {
@@ -247,7 +248,7 @@ public class OneVersusOneMatch extends Match {
                     );
                 }
             });
-            end();
+            plugin.getMatchManager().endMatch(getUuid());
             return;
         }
 
@@ -256,16 +257,6 @@ public class OneVersusOneMatch extends Match {
 
     @Override
     public void end() {
-        started = false;
-
-        // Cancel boxing tasks if they exist
-        if (countdownTask != null) {
-            countdownTask.cancel();
-        }
-        if (matchTask != null) {
-            matchTask.cancel();
-        }
-
         // Notify players based on match type
         if (!isBoxingKit()) {
             notifyMatchEnd();
@@ -283,7 +274,9 @@ public class OneVersusOneMatch extends Match {
 
     @Override
     public void cleanup() {
-        end();
+        // Timers live on the match and the ticker skips ended matches, nothing to cancel
+        countdown = 0;
+        timeElapsed = 0;
     }
 
     private void giveKitItems() {
@@ -372,7 +365,7 @@ public class OneVersusOneMatch extends Match {
 
     // Boxing-specific getters
     public boolean isStarted() {
-        return started;
+        return getState() == MatchState.RUNNING;
     }
 
     public int getRedHits() {
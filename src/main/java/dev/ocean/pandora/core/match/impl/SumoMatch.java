@@ -4,6 +4,7 @@ import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.core.arena.Arena;
 import dev.ocean.pandora.core.kit.Kit;
 import dev.ocean.pandora.core.match.Match;
+import dev.ocean.pandora.core.match.MatchState;
 import dev.ocean.pandora.core.player.User;
 import dev.ocean.pandora.core.player.UserStatus;
 import dev.ocean.pandora.utils.StringUtils;
@@ -11,7 +12,6 @@ import lombok.Getter;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.List;
 
@@ -19,11 +19,13 @@ import java.util.List;
 public class SumoMatch extends Match {
     private static final int COUNTDOWN_SECONDS = 5;
     private static final int ROUND_TIME_LIMIT = 60; // 60 seconds per round
+    private static final int ROUND_DELAY_SECONDS = 3;
 
     private final Pandora plugin;
-    private boolean started = false;
-    private BukkitRunnable countdownTask;
-    private BukkitRunnable matchTask;
+    // Phase timers in seconds, each one only counts while its state is current
+    private int countdown = 0;
+    private int roundTimeLeft = 0;
+    private int roundDelay = 0;
     private int roundNumber = 1;
     private static final int MAX_ROUNDS = 3;
 
@@ -34,8 +36,7 @@ public class SumoMatch extends Match {
 
     @Override
     public void start() {
-        // Teleport players and set up
-        teleportPlayers();
+        // Players are already in the arena, set them up
         setupPlayers();
 
         // Start countdown
@@ -64,85 +65,97 @@ public class SumoMatch extends Match {
     }
 
     private void startCountdown() {
-        countdownTask = new BukkitRunnable() {
-            private int countdown = COUNTDOWN_SECONDS;
-
-            @Override
-            public void run() {
-                if (countdown <= 0) {
-                    started = true;
-                    getAllUsers().forEach(user -> {
-                        Player player = user.toPlayer();
-                        if (player != null) {
-                            player.sendTitle(
-                                    StringUtils.handle("&a&lFIGHT!"),
-                                    StringUtils.handle("&7Round " + roundNumber + " - Push them off!"),
-                                    10, 40, 10
-                            );
-                            player.sendMessage(StringUtils.handle("&a&lRound " + roundNumber + " has started!"));
-                        }
-                    });
-                    startRoundTimer();
-                    cancel();
-                    return;
-                }
+        if (!setState(MatchState.COUNTDOWN)) return;
 
-                getAllUsers().forEach(user -> {
-                    Player player = user.toPlayer();
-                    if (player != null) {
-                        player.sendTitle(
-                                StringUtils.handle("&e&l" + countdown),
-                                StringUtils.handle("&7Round " + roundNumber + " starting..."),
-                                0, 25, 0
-                        );
-                    }
-                });
-
-                countdown--;
-            }
-        };
-        countdownTask.runTaskTimer(plugin, 0L, 20L);
+        countdown = COUNTDOWN_SECONDS;
+        tickCountdown();
     }
 
-    private void startRoundTimer() {
-        matchTask = new BukkitRunnable() {
-            private int timeLeft = ROUND_TIME_LIMIT;
-
-            @Override
-            public void run() {
-                timeLeft--;
-
-                // Update action bar with time
-                getAllUsers().forEach(user -> {
-                    Player player = user.toPlayer();
-                    if (player != null) {
-                        player.setLevel(timeLeft);
-                        player.setExp((float) timeLeft / ROUND_TIME_LIMIT);
-                    }
-                });
-
-                // Warn at 10 seconds
-                if (timeLeft == 10) {
-                    getAllUsers().forEach(user -> {
-                        Player player = user.toPlayer();
-                        if (player != null) {
-                            player.sendMessage(StringUtils.handle("&c&l10 seconds remaining!"));
-                        }
+    // Driven once a second by the MatchManager ticker
+    @Override
+    public void tick() {
+        switch (getState()) {
+            case COUNTDOWN -> tickCountdown();
+            case RUNNING -> tickRoundTimer();
+            case ROUND_ENDING -> {
+                if (roundDelay > 0 && --roundDelay == 0) {
+                    // Reset players to spawn positions
+                    teleportPlayers().thenRun(() -> {
+                        if (isEnded()) return;
+
+                        setupPlayers();
+                        startCountdown();
                     });
                 }
+            }
+            default -> {
+            }
+        }
+    }
 
-                // Round time limit reached
-                if (timeLeft <= 0) {
-                    endRoundByTime();
-                    cancel();
+    private void tickCountdown() {
+        if (countdown <= 0) {
+            if (!setState(MatchState.RUNNING)) return;
+
+            roundTimeLeft = ROUND_TIME_LIMIT;
+            getAllUsers().forEach(user -> {
+                Player player = user.toPlayer();
+                if (player != null) {
+                    player.sendTitle(
+                            StringUtils.handle("&a&lFIGHT!"),
+                            StringUtils.handle("&7Round " + roundNumber + " - Push them off!"),
+                            10, 40, 10
+                    );
+                    player.sendMessage(StringUtils.handle("&a&lRound " + roundNumber + " has started!"));
                 }
+            });
+            return;
+        }
+
+        getAllUsers().forEach(user -> {
+            Player player = user.toPlayer();
+            if (player != null) {
+                player.sendTitle(
+                        StringUtils.handle("&e&l" + countdown),
+                        StringUtils.handle("&7Round " + roundNumber + " starting..."),
+                        0, 25, 0
+                );
             }
-        };
-        matchTask.runTaskTimer(plugin, 20L, 20L);
+        });
+
+        countdown--;
+    }
+
+    private void tickRoundTimer() {
+        roundTimeLeft--;
+
+        // Update action bar with time
+        getAllUsers().forEach(user -> {
+            Player player = user.toPlayer();
+            if (player != null) {
+                player.setLevel(roundTimeLeft);
+                player.setExp((float) roundTimeLeft / ROUND_TIME_LIMIT);
+            }
+        });
+
+        // Warn at 10 seconds
+        if (roundTimeLeft == 10) {
+            getAllUsers().forEach(user -> {
+                Player player = user.toPlayer();
+                if (player != null) {
+                    player.sendMessage(StringUtils.handle("&c&l10 seconds remaining!"));
+                }
+            });
+        }
+
+        // Round time limit reached
+        if (roundTimeLeft <= 0) {
+            endRoundByTime();
+        }
     }
 
     public void checkPlayerFall(User user) {
-        if (!started) return;
+        if (!isStarted()) return;
 
         Player player = user.toPlayer();
         if (player == null) return;
@@ -181,10 +194,6 @@ public class SumoMatch extends Match {
     }
 
     private void endRound(List<User> winners, List<User> losers, String message) {
-        if (matchTask != null) {
-            matchTask.cancel();
-        }
-
         getAllUsers().forEach(user -> {
             Player player = user.toPlayer();
             if (player != null) {
@@ -201,18 +210,10 @@ public class SumoMatch extends Match {
     }
 
     private void nextRound() {
+        if (!setState(MatchState.ROUND_ENDING)) return;
+
         roundNumber++;
-        started = false;
-
-        // Reset players to spawn positions
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                teleportPlayers();
-                setupPlayers();
-                startCountdown();
-            }
-        }.runTaskLater(plugin, 60L); // 3 second delay
+        roundDelay = ROUND_DELAY_SECONDS;
     }
 
     private void endMatch(List<User> winners, List<User> losers) {
@@ -235,21 +236,12 @@ public class SumoMatch extends Match {
             }
         });
 
-        end();
+        setWinners(winners);
+        plugin.getMatchManager().endMatch(getUuid());
     }
 
     @Override
     public void end() {
-        started = false;
-
-        // Cancel tasks
-        if (countdownTask != null) {
-            countdownTask.cancel();
-        }
-        if (matchTask != null) {
-            matchTask.cancel();
-        }
-
         // Reset players
         getAllUsers().forEach(user -> {
             Player player = user.toPlayer();
@@ -271,7 +263,10 @@ public class SumoMatch extends Match {
 
     @Override
     public void cleanup() {
-        end();
+        // Timers live on the match and the ticker skips ended matches, nothing to cancel
+        countdown = 0;
+        roundTimeLeft = 0;
+        roundDelay = 0;
     }
 
     private List<User> getAllUsers() {
@@ -282,7 +277,7 @@ public class SumoMatch extends Match {
     }
 
     public boolean isStarted() {
-        return started;
+        return getState() == MatchState.RUNNING;
     }
 
     public int getRoundNumber() {
@@ -1,8 +1,11 @@
 package dev.ocean.pandora.core.player;
 
 import dev.ocean.pandora.core.match.Match;
+import dev.ocean.pandora.database.PlayerStats;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
@@ -13,7 +16,10 @@ import java.util.UUID;
 public class User {
     private UUID uuid;
     private Match currentMatch;
-    private UserStatus status;
+    private volatile UserStatus status;
+    // Attached on join from the pre-login preload, null until it is available
+    @EqualsAndHashCode.Exclude @ToString.Exclude
+    private volatile PlayerStats stats;
 
     public User(UUID uuid, Match currentMatch) {
         this.uuid = uuid;
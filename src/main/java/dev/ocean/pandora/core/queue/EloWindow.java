@@ -0,0 +1,23 @@
+package dev.ocean.pandora.core.queue;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class EloWindow {
+    private final int base;
+    private final int increment;
+    private final int intervalSeconds;
+    private final int max;
+
+    // Allowed ELO gap for an entry that has been queued for the given time
+    public int at(long queueTimeMillis) {
+        if (intervalSeconds <= 0) {
+            return max;
+        }
+
+        long steps = queueTimeMillis / (intervalSeconds * 1000L);
+        return (int) Math.min(max, base + steps * increment);
+    }
+}
@@ -0,0 +1,118 @@
+package dev.ocean.pandora.core.queue;
+
+import java.util.List;
+
+// Each kit queue is its own lock, so joins for different kits never contend
+public abstract class KitQueue {
+
+    private Queue head;
+    private Queue tail;
+    private int size;
+    private long nextTicket;
+
+    public synchronized void add(Queue queue) {
+        if (queue.owner != null) {
+            return;
+        }
+
+        queue.owner = this;
+        queue.ticket = nextTicket++;
+        queue.previous = tail;
+        queue.next = null;
+
+        if (tail == null) {
+            head = queue;
+        } else {
+            tail.next = queue;
+        }
+        tail = queue;
+        size++;
+
+        onAdd(queue);
+    }
+
+    // Puts an entry back at the front, used when a pairing falls through
+    public synchronized void addFirst(Queue queue) {
+        if (queue.owner != null) {
+            return;
+        }
+
+        queue.owner = this;
+        queue.ticket = head == null ? nextTicket++ : head.ticket - 1;
+        queue.previous = null;
+        queue.next = head;
+
+        if (head == null) {
+            tail = queue;
+        } else {
+            head.previous = queue;
+        }
+        head = queue;
+        size++;
+
+        onAdd(queue);
+    }
+
+    public synchronized boolean remove(Queue queue) {
+        if (queue.owner != this) {
+            return false;
+        }
+
+        if (queue.previous == null) {
+            head = queue.next;
+        } else {
+            queue.previous.next = queue.next;
+        }
+
+        if (queue.next == null) {
+            tail = queue.previous;
+        } else {
+            queue.next.previous = queue.previous;
+        }
+
+        queue.owner = null;
+        queue.previous = null;
+        queue.next = null;
+        size--;
+
+        onRemove(queue);
+        return true;
+    }
+
+    public synchronized boolean contains(Queue queue) {
+        return queue.owner == this;
+    }
+
+    /**
+     * 1-based position in join order, derived from tickets. Entries that left
+     * from the middle of the queue are still counted, so this is an upper bound.
+     */
+    public synchronized int position(Queue queue) {
+        if (queue.owner != this || head == null) {
+            return 0;
+        }
+
+        return (int) Math.min(size, queue.ticket - head.ticket + 1);
+    }
+
+    public synchronized Queue peek() {
+        return head;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Implementations must be synchronized so a pass consumes its pairs atomically
+    public abstract List<Queue[]> pollPairs(EloWindow window, long now);
+
+    protected void onAdd(Queue queue) {
+    }
+
+    protected void onRemove(Queue queue) {
+    }
+}
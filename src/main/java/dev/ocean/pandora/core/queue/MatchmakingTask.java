@@ -0,0 +1,29 @@
+package dev.ocean.pandora.core.queue;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.manager.QueueManager;
+import org.bukkit.scheduler.BukkitRunnable;
+
+public class MatchmakingTask extends BukkitRunnable {
+
+    private final Pandora plugin;
+    private final QueueManager queueManager;
+    private long ticks = 0;
+
+    public MatchmakingTask(Pandora plugin, QueueManager queueManager) {
+        this.plugin = plugin;
+        this.queueManager = queueManager;
+    }
+
+    @Override
+    public void run() {
+        queueManager.expireEntries(System.currentTimeMillis());
+
+        // Pair everyone once per interval, but only start a bounded number of matches each tick
+        if (ticks++ % plugin.getConfigManager().getMatchmakingInterval() == 0) {
+            queueManager.pairQueues();
+        }
+
+        queueManager.startPendingMatches(plugin.getConfigManager().getMaxMatchesPerTick());
+    }
+}
@@ -2,16 +2,40 @@ package dev.ocean.pandora.core.queue;
 
 import dev.ocean.pandora.core.kit.Kit;
 import dev.ocean.pandora.core.player.User;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
-@AllArgsConstructor
 @Data
 public class Queue {
     private User user;
     private Kit kit;
     private boolean ranked;
     private long joinTime;
+    private int elo;
+    // Set once the entry outlived the max queue time, lifts the ranked ELO window
+    private boolean expanded;
+
+    // Intrusive links owned by the KitQueue this entry currently sits in
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    KitQueue owner;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    Queue previous;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    Queue next;
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    long ticket;
+
+    public Queue(User user, Kit kit, boolean ranked, long joinTime, int elo) {
+        this.user = user;
+        this.kit = kit;
+        this.ranked = ranked;
+        this.joinTime = joinTime;
+        this.elo = elo;
+    }
 
     public long getQueueTime() {
         return System.currentTimeMillis() - joinTime;
@@ -20,4 +44,4 @@ public class Queue {
     public int getQueueTimeSeconds() {
         return (int) (getQueueTime() / 1000);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package dev.ocean.pandora.core.queue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+public class RankedQueue extends KitQueue {
+
+    private static final Comparator<Queue> ELO_ORDER = Comparator
+            .comparingInt(Queue::getElo)
+            .thenComparingLong(Queue::getJoinTime)
+            .thenComparing(queue -> queue.getUser().getUuid());
+
+    private final NavigableSet<Queue> entries = new TreeSet<>(ELO_ORDER);
+
+    @Override
+    protected void onAdd(Queue queue) {
+        entries.add(queue);
+    }
+
+    @Override
+    protected void onRemove(Queue queue) {
+        entries.remove(queue);
+    }
+
+    /**
+     * Pairs neighbouring entries in ELO order whose gap fits the window of
+     * the longer-waiting player, preferring the closer of two overlapping pairs.
+     * Paired entries are removed from the queue.
+     */
+    @Override
+    public synchronized List<Queue[]> pollPairs(EloWindow window, long now) {
+        List<Queue[]> pairs = new ArrayList<>();
+        if (entries.size() < 2) {
+            return pairs;
+        }
+
+        Queue[] sorted = entries.toArray(new Queue[0]);
+        int i = 0;
+
+        while (i + 1 < sorted.length) {
+            Queue first = sorted[i];
+            Queue second = sorted[i + 1];
+            int gap = second.getElo() - first.getElo();
+
+            if (gap > allowedGap(window, now, first, second)) {
+                i++;
+                continue;
+            }
+
+            // Leave the first entry for the next pass if its partner has a closer neighbour
+            if (i + 2 < sorted.length) {
+                Queue third = sorted[i + 2];
+                int nextGap = third.getElo() - second.getElo();
+                if (nextGap < gap && nextGap <= allowedGap(window, now, second, third)) {
+                    i++;
+                    continue;
+                }
+            }
+
+            remove(first);
+            remove(second);
+            pairs.add(new Queue[]{first, second});
+            i += 2;
+        }
+
+        return pairs;
+    }
+
+    private int allowedGap(EloWindow window, long now, Queue first, Queue second) {
+        if (first.isExpanded() || second.isExpanded()) {
+            return Integer.MAX_VALUE;
+        }
+
+        long waited = now - Math.min(first.getJoinTime(), second.getJoinTime());
+        return window.at(waited);
+    }
+}
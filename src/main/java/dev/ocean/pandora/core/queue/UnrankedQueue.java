@@ -0,0 +1,23 @@
+package dev.ocean.pandora.core.queue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UnrankedQueue extends KitQueue {
+
+    @Override
+    public synchronized List<Queue[]> pollPairs(EloWindow window, long now) {
+        List<Queue[]> pairs = new ArrayList<>(size() / 2);
+
+        // First come, first served
+        while (size() >= 2) {
+            Queue first = peek();
+            remove(first);
+            Queue second = peek();
+            remove(second);
+            pairs.add(new Queue[]{first, second});
+        }
+
+        return pairs;
+    }
+}
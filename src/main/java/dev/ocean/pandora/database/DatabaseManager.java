@@ -1,42 +1,144 @@
 package dev.ocean.pandora.database;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.core.leaderboard.Leaderboard;
+import dev.ocean.pandora.core.match.MatchResult;
+import dev.ocean.pandora.database.dialect.SqlDialect;
 import dev.ocean.pandora.manager.ConfigManager;
 import lombok.Getter;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 @Getter
-public class DatabaseManager {
+public class DatabaseManager implements StatsStorage {
+    // Each half walks its own (player, created_at) index, id breaks ties inside the same second
+    private static final String PLAYER_HISTORY_QUERY = """
+        SELECT * FROM (
+            SELECT * FROM match_history WHERE player1_uuid = ?
+                AND (created_at < ? OR (created_at = ? AND id < ?))
+                ORDER BY created_at DESC, id DESC LIMIT ?
+        ) first_half
+        UNION ALL
+        SELECT * FROM (
+            SELECT * FROM match_history WHERE player2_uuid = ?
+                AND (created_at < ? OR (created_at = ? AND id < ?))
+                ORDER BY created_at DESC, id DESC LIMIT ?
+        ) second_half
+        ORDER BY created_at DESC, id DESC LIMIT ?
+    """;
+
+    private static final String KIT_HISTORY_QUERY = """
+        SELECT * FROM match_history WHERE kit_name = ?
+            AND (created_at < ? OR (created_at = ? AND id < ?))
+            ORDER BY created_at DESC, id DESC LIMIT ?
+    """;
+
+    // Sorts after every real timestamp, so the first page needs no special query
+    private static final String FIRST_PAGE_TIME = "9999-12-31 23:59:59";
+
+    // Oldest rows first by primary key, so each pass reads one small batch no matter how big the table is
+    private static final String COMPACT_SELECT_QUERY = """
+        SELECT id, player1_uuid, player2_uuid, winner_uuid, kit_name, duration, created_at,
+            CASE WHEN created_at < %s THEN 1 ELSE 0 END AS expired
+        FROM match_history ORDER BY id LIMIT ?
+    """;
+
+    private static final String ARCHIVE_QUERY = """
+        INSERT INTO match_history_archive
+        (id, match_uuid, player1_uuid, player2_uuid, winner_uuid, kit_name, arena_name, duration, created_at)
+        SELECT id, match_uuid, player1_uuid, player2_uuid, winner_uuid, kit_name, arena_name, duration, created_at
+        FROM match_history WHERE id BETWEEN ? AND ?
+    """;
+
     private final Pandora plugin;
     private final ConfigManager configManager;
-    private Connection connection;
+    private final SqlDialect dialect;
+    // Native upserts update the row in place, INSERT OR REPLACE deleted and re-inserted it
+    private final String saveStatsQuery;
+    private final String saveKitRatingQuery;
+    private final String rollupQuery;
+    // Ignores a match_uuid that is already stored, so a replayed spool record is not counted twice
+    private final String recordMatchQuery;
+    private HikariDataSource dataSource;
+    // Queries never run on the main thread, the pool bounds how many actually hit the database
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("Pandora-DB-", 0).factory()
+    );
 
     public DatabaseManager(Pandora plugin, ConfigManager configManager) {
         this.plugin = plugin;
         this.configManager = configManager;
+        this.dialect = SqlDialect.of(configManager.getDatabaseType());
+        this.saveStatsQuery = dialect.upsert(
+                "player_stats",
+                List.of("uuid"),
+                List.of("username", "wins", "losses", "kills", "deaths", "elo", "streak")
+        );
+        this.saveKitRatingQuery = dialect.upsert(
+                "player_kit_ratings",
+                List.of("uuid", "kit_name"),
+                List.of("elo")
+        );
+        this.rollupQuery = dialect.upsertIncrement(
+                "match_history_daily",
+                List.of("match_day", "uuid", "kit_name"),
+                List.of("matches", "wins", "losses", "draws", "total_duration")
+        );
+        this.recordMatchQuery = dialect.insertIgnore(
+                "match_history",
+                List.of("match_uuid", "player1_uuid", "player2_uuid", "winner_uuid", "kit_name", "arena_name", "duration", "created_at")
+        );
         connect();
-        createTables();
+        if (dataSource != null) {
+            createTables();
+        }
+    }
+
+    public boolean isConnected() {
+        return dataSource != null && !dataSource.isClosed();
+    }
+
+    // Hikari replaces broken connections by itself, this only covers a pool that never came up
+    public synchronized boolean reconnect() {
+        if (dataSource == null) {
+            connect();
+            if (dataSource != null) {
+                createTables();
+            }
+        }
+        return isConnected();
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (dataSource == null) {
+            throw new SQLException("Database is not connected");
+        }
+        return dataSource.getConnection();
     }
 
     private void connect() {
         try {
-            String type = configManager.getDatabaseType();
-            String url = configManager.getDatabaseUrl();
-
-            if (type.equalsIgnoreCase("sqlite")) {
-                Class.forName("org.sqlite.JDBC");
-                connection = DriverManager.getConnection(url);
-            } else if (type.equalsIgnoreCase("mysql")) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(
-                        url,
-                        configManager.getDatabaseUsername(),
-                        configManager.getDatabasePassword()
-                );
-            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("Pandora");
+            config.setJdbcUrl(configManager.getDatabaseUrl());
+            config.setDriverClassName(dialect.getDriverClassName());
+            config.setUsername(configManager.getDatabaseUsername());
+            config.setPassword(configManager.getDatabasePassword());
+            config.setConnectionTimeout(configManager.getDatabaseSettings().getConnectionTimeout());
+            dialect.configure(config, configManager.getDatabaseSettings().getPoolSize());
 
+            dataSource = new HikariDataSource(config);
             plugin.getLogger().info("Database connected successfully!");
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to connect to database: " + e.getMessage());
@@ -44,7 +146,8 @@ public class DatabaseManager {
     }
 
     private void createTables() {
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection connection = getConnection();
+             Statement stmt = connection.createStatement()) {
             String playerStatsTable = """
                 CREATE TABLE IF NOT EXISTS player_stats (
                     uuid VARCHAR(36) PRIMARY KEY,
@@ -62,7 +165,7 @@ public class DatabaseManager {
 
             String matchHistoryTable = """
                 CREATE TABLE IF NOT EXISTS match_history (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    id %s,
                     match_uuid VARCHAR(36) NOT NULL,
                     player1_uuid VARCHAR(36) NOT NULL,
                     player2_uuid VARCHAR(36) NOT NULL,
@@ -72,90 +175,426 @@ public class DatabaseManager {
                     duration INTEGER NOT NULL,
                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
+            """.formatted(dialect.autoIncrementPrimaryKey());
+
+            String kitRatingsTable = """
+                CREATE TABLE IF NOT EXISTS player_kit_ratings (
+                    uuid VARCHAR(36) NOT NULL,
+                    kit_name VARCHAR(32) NOT NULL,
+                    elo INTEGER DEFAULT 1000,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (uuid, kit_name)
+                )
+            """;
+
+            // Compacted history: per player, kit and day totals plus the raw rows moved out of match_history
+            String dailyTable = """
+                CREATE TABLE IF NOT EXISTS match_history_daily (
+                    match_day VARCHAR(10) NOT NULL,
+                    uuid VARCHAR(36) NOT NULL,
+                    kit_name VARCHAR(32) NOT NULL,
+                    matches INTEGER DEFAULT 0,
+                    wins INTEGER DEFAULT 0,
+                    losses INTEGER DEFAULT 0,
+                    draws INTEGER DEFAULT 0,
+                    total_duration BIGINT DEFAULT 0,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (match_day, uuid, kit_name)
+                )
+            """;
+
+            String archiveTable = """
+                CREATE TABLE IF NOT EXISTS match_history_archive (
+                    id BIGINT PRIMARY KEY,
+                    match_uuid VARCHAR(36) NOT NULL,
+                    player1_uuid VARCHAR(36) NOT NULL,
+                    player2_uuid VARCHAR(36) NOT NULL,
+                    winner_uuid VARCHAR(36),
+                    kit_name VARCHAR(32) NOT NULL,
+                    arena_name VARCHAR(32) NOT NULL,
+                    duration INTEGER NOT NULL,
+                    created_at TIMESTAMP NULL
+                )
             """;
 
             stmt.execute(playerStatsTable);
             stmt.execute(matchHistoryTable);
+            stmt.execute(kitRatingsTable);
+            stmt.execute(dailyTable);
+            stmt.execute(archiveTable);
+
+            dialect.createIndex(stmt, "idx_match_history_player1", "match_history(player1_uuid, created_at)");
+            dialect.createIndex(stmt, "idx_match_history_player2", "match_history(player2_uuid, created_at)");
+            dialect.createIndex(stmt, "idx_match_history_kit", "match_history(kit_name, created_at)");
+            dialect.createIndex(stmt, "idx_kit_ratings_kit", "player_kit_ratings(kit_name, elo)");
+            dialect.createIndex(stmt, "idx_match_history_daily_player", "match_history_daily(uuid, match_day)");
+
+            // Tables from before this key may already hold duplicates, the rest of the schema still works without it
+            try {
+                dialect.createUniqueIndex(stmt, "idx_match_history_match", "match_history(match_uuid)");
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Could not add the unique match_uuid key, replayed matches may be stored twice: " + e.getMessage());
+            }
 
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to create tables: " + e.getMessage());
         }
     }
 
+    // Blocking, only for callers that are already off the main thread
+    @Override
     public PlayerStats getPlayerStats(UUID uuid) {
+        try {
+            return loadPlayerStats(uuid);
+        } catch (StorageException e) {
+            plugin.getLogger().severe("Failed to get player stats: " + e.getCause().getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public PlayerStats loadPlayerStats(UUID uuid) throws StorageException {
+        try {
+            return queryPlayerStats(uuid);
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load stats for " + uuid, e);
+        }
+    }
+
+    private PlayerStats queryPlayerStats(UUID uuid) throws SQLException {
         String query = "SELECT * FROM player_stats WHERE uuid = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, uuid.toString());
             ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                return new PlayerStats(
+            if (!rs.next()) {
+                return null;
+            }
+
+            PlayerStats stats = new PlayerStats(
+                    UUID.fromString(rs.getString("uuid")),
+                    rs.getString("username"),
+                    rs.getInt("wins"),
+                    rs.getInt("losses"),
+                    rs.getInt("kills"),
+                    rs.getInt("deaths"),
+                    rs.getInt("elo"),
+                    rs.getInt("streak")
+            );
+
+            try (PreparedStatement ratings = connection.prepareStatement("SELECT kit_name, elo FROM player_kit_ratings WHERE uuid = ?")) {
+                ratings.setString(1, uuid.toString());
+                ResultSet ratingRs = ratings.executeQuery();
+                while (ratingRs.next()) {
+                    stats.getKitRatings().put(ratingRs.getString("kit_name").toLowerCase(), ratingRs.getInt("elo"));
+                }
+            }
+            return stats;
+        }
+    }
+
+    // Every rating in one streamed pass, only used to build the leaderboards at startup
+    @Override
+    public List<Leaderboard.Entry> loadRatings() {
+        List<Leaderboard.Entry> ratings = new ArrayList<>();
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT uuid, username, elo FROM player_stats")) {
+            stmt.setFetchSize(1000);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                ratings.add(new Leaderboard.Entry(
                         UUID.fromString(rs.getString("uuid")),
                         rs.getString("username"),
-                        rs.getInt("wins"),
-                        rs.getInt("losses"),
-                        rs.getInt("kills"),
-                        rs.getInt("deaths"),
-                        rs.getInt("elo"),
-                        rs.getInt("streak")
-                );
+                        rs.getInt("elo")
+                ));
             }
         } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to get player stats: " + e.getMessage());
+            plugin.getLogger().severe("Failed to load ratings: " + e.getMessage());
         }
-        return null;
+        return ratings;
     }
 
-    public void savePlayerStats(PlayerStats stats) {
+    // Per-kit ratings grouped by kit name, for the kit leaderboards
+    @Override
+    public Map<String, List<Leaderboard.Entry>> loadKitRatings() {
+        Map<String, List<Leaderboard.Entry>> ratings = new HashMap<>();
         String query = """
-            INSERT OR REPLACE INTO player_stats 
-            (uuid, username, wins, losses, kills, deaths, elo, streak, updated_at) 
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            SELECT r.uuid, r.kit_name, r.elo, s.username
+            FROM player_kit_ratings r JOIN player_stats s ON s.uuid = r.uuid
         """;
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, stats.getUuid().toString());
-            stmt.setString(2, stats.getUsername());
-            stmt.setInt(3, stats.getWins());
-            stmt.setInt(4, stats.getLosses());
-            stmt.setInt(5, stats.getKills());
-            stmt.setInt(6, stats.getDeaths());
-            stmt.setInt(7, stats.getElo());
-            stmt.setInt(8, stats.getStreak());
-            stmt.executeUpdate();
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setFetchSize(1000);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                ratings.computeIfAbsent(rs.getString("kit_name"), key -> new ArrayList<>()).add(new Leaderboard.Entry(
+                        UUID.fromString(rs.getString("uuid")),
+                        rs.getString("username"),
+                        rs.getInt("elo")
+                ));
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to load kit ratings: " + e.getMessage());
+        }
+        return ratings;
+    }
+
+    @Override
+    public List<MatchHistoryEntry> getMatchHistory(UUID player, MatchHistoryEntry after, int limit) {
+        try {
+            return loadMatchHistory(player, after, limit);
+        } catch (StorageException e) {
+            plugin.getLogger().severe("Failed to load match history: " + e.getCause().getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<MatchHistoryEntry> loadMatchHistory(UUID player, MatchHistoryEntry after, int limit) throws StorageException {
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(PLAYER_HISTORY_QUERY)) {
+            int index = 1;
+            for (int half = 0; half < 2; half++) {
+                stmt.setString(index++, player.toString());
+                index = bindCursor(stmt, index, after);
+                stmt.setInt(index++, limit);
+            }
+            stmt.setInt(index, limit);
+            return readHistory(stmt.executeQuery());
+        } catch (SQLException e) {
+            throw new StorageException("Failed to load match history for " + player, e);
+        }
+    }
+
+    @Override
+    public List<MatchHistoryEntry> getKitHistory(String kitName, MatchHistoryEntry after, int limit) {
+        try (Connection connection = getConnection();
+             PreparedStatement stmt = connection.prepareStatement(KIT_HISTORY_QUERY)) {
+            stmt.setString(1, kitName);
+            int index = bindCursor(stmt, 2, after);
+            stmt.setInt(index, limit);
+            return readHistory(stmt.executeQuery());
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to load kit history: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private int bindCursor(PreparedStatement stmt, int index, MatchHistoryEntry after) throws SQLException {
+        String time = after != null ? after.createdAt() : FIRST_PAGE_TIME;
+        stmt.setString(index++, time);
+        stmt.setString(index++, time);
+        stmt.setLong(index++, after != null ? after.id() : Long.MAX_VALUE);
+        return index;
+    }
+
+    private List<MatchHistoryEntry> readHistory(ResultSet rs) throws SQLException {
+        List<MatchHistoryEntry> entries = new ArrayList<>();
+        while (rs.next()) {
+            String winner = rs.getString("winner_uuid");
+            entries.add(new MatchHistoryEntry(
+                    rs.getLong("id"),
+                    UUID.fromString(rs.getString("match_uuid")),
+                    UUID.fromString(rs.getString("player1_uuid")),
+                    UUID.fromString(rs.getString("player2_uuid")),
+                    winner != null ? UUID.fromString(winner) : null,
+                    rs.getString("kit_name"),
+                    rs.getString("arena_name"),
+                    rs.getInt("duration"),
+                    rs.getString("created_at")
+            ));
+        }
+        return entries;
+    }
+
+    // Writes a batch of finished matches in one transaction
+    @Override
+    public boolean writeMatchResults(Collection<MatchResult> results) {
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement history = connection.prepareStatement(recordMatchQuery)) {
+                for (MatchResult result : results) {
+                    history.setString(1, result.matchUuid().toString());
+                    history.setString(2, result.player1().toString());
+                    history.setString(3, result.player2().toString());
+                    history.setString(4, result.winner() != null ? result.winner().toString() : null);
+                    history.setString(5, result.kitName());
+                    history.setString(6, result.arenaName());
+                    history.setInt(7, result.duration());
+                    dialect.setTimestamp(history, 8, result.endedAt());
+                    history.addBatch();
+                }
+
+                history.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to write match results: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Upserts many players and their kit ratings in one transaction
+    @Override
+    public boolean savePlayerStatsBatch(Collection<PlayerStats> stats) {
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(saveStatsQuery);
+                 PreparedStatement kitStmt = connection.prepareStatement(saveKitRatingQuery)) {
+                for (PlayerStats playerStats : stats) {
+                    bindStats(stmt, playerStats);
+                    stmt.addBatch();
+
+                    for (Map.Entry<String, Integer> rating : playerStats.getKitRatings().entrySet()) {
+                        kitStmt.setString(1, playerStats.getUuid().toString());
+                        kitStmt.setString(2, rating.getKey());
+                        kitStmt.setInt(3, rating.getValue());
+                        kitStmt.addBatch();
+                    }
+                }
+
+                stmt.executeBatch();
+                kitStmt.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to save player stats: " + e.getMessage());
+            return false;
         }
     }
 
-    public void recordMatch(UUID matchUuid, UUID player1, UUID player2, UUID winner, String kitName, String arenaName, int duration) {
-        String query = """
-            INSERT INTO match_history 
-            (match_uuid, player1_uuid, player2_uuid, winner_uuid, kit_name, arena_name, duration) 
-            VALUES (?, ?, ?, ?, ?, ?, ?)
-        """;
+    // Rolls the oldest batch of expired matches into the daily totals and archive in one short transaction,
+    // returns how many rows left match_history
+    @Override
+    public int compactHistory(int retentionDays, int batchSize, boolean archive) {
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Map<DailyKey, int[]> totals = new HashMap<>();
+                long firstId = -1;
+                long lastId = -1;
+                int rows = 0;
+
+                try (PreparedStatement stmt = connection.prepareStatement(COMPACT_SELECT_QUERY.formatted(dialect.daysAgo(retentionDays)))) {
+                    stmt.setInt(1, batchSize);
+                    ResultSet rs = stmt.executeQuery();
+
+                    // Ids grow with time, the first row that is still recent ends the batch
+                    while (rs.next() && rs.getInt("expired") == 1) {
+                        long id = rs.getLong("id");
+                        firstId = firstId == -1 ? id : firstId;
+                        lastId = id;
+                        rows++;
+
+                        String day = rs.getString("created_at").substring(0, 10);
+                        String kit = rs.getString("kit_name");
+                        String winner = rs.getString("winner_uuid");
+                        int duration = rs.getInt("duration");
+                        tally(totals, new DailyKey(day, rs.getString("player1_uuid"), kit), winner, duration);
+                        tally(totals, new DailyKey(day, rs.getString("player2_uuid"), kit), winner, duration);
+                    }
+                }
+
+                if (rows == 0) {
+                    connection.rollback();
+                    return 0;
+                }
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, matchUuid.toString());
-            stmt.setString(2, player1.toString());
-            stmt.setString(3, player2.toString());
-            stmt.setString(4, winner != null ? winner.toString() : null);
-            stmt.setString(5, kitName);
-            stmt.setString(6, arenaName);
-            stmt.setInt(7, duration);
-            stmt.executeUpdate();
+                try (PreparedStatement rollup = connection.prepareStatement(rollupQuery)) {
+                    for (Map.Entry<DailyKey, int[]> entry : totals.entrySet()) {
+                        DailyKey key = entry.getKey();
+                        int[] tally = entry.getValue();
+                        rollup.setString(1, key.day());
+                        rollup.setString(2, key.uuid());
+                        rollup.setString(3, key.kit());
+                        for (int i = 0; i < tally.length; i++) {
+                            rollup.setInt(4 + i, tally[i]);
+                        }
+                        rollup.addBatch();
+                    }
+                    rollup.executeBatch();
+                }
+
+                if (archive) {
+                    try (PreparedStatement stmt = connection.prepareStatement(ARCHIVE_QUERY)) {
+                        stmt.setLong(1, firstId);
+                        stmt.setLong(2, lastId);
+                        stmt.executeUpdate();
+                    }
+                }
+
+                try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM match_history WHERE id BETWEEN ? AND ?")) {
+                    stmt.setLong(1, firstId);
+                    stmt.setLong(2, lastId);
+                    stmt.executeUpdate();
+                }
+
+                connection.commit();
+                return rows;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to record match: " + e.getMessage());
+            plugin.getLogger().severe("Failed to compact match history: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Tally layout matches the rollup counters: matches, wins, losses, draws, total_duration
+    private void tally(Map<DailyKey, int[]> totals, DailyKey key, String winner, int duration) {
+        int[] tally = totals.computeIfAbsent(key, k -> new int[5]);
+        tally[0]++;
+        if (winner == null) {
+            tally[3]++;
+        } else if (winner.equals(key.uuid())) {
+            tally[1]++;
+        } else {
+            tally[2]++;
         }
+        tally[4] += duration;
     }
 
+    private void bindStats(PreparedStatement stmt, PlayerStats stats) throws SQLException {
+        stmt.setString(1, stats.getUuid().toString());
+        stmt.setString(2, stats.getUsername());
+        stmt.setInt(3, stats.getWins());
+        stmt.setInt(4, stats.getLosses());
+        stmt.setInt(5, stats.getKills());
+        stmt.setInt(6, stats.getDeaths());
+        stmt.setInt(7, stats.getElo());
+        stmt.setInt(8, stats.getStreak());
+    }
+
+    @Override
     public void disconnect() {
+        // Let queued queries finish before the pool goes away
+        executor.shutdown();
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Database queries were still running on shutdown");
             }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to disconnect from database: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
+        }
+    }
+
+    private record DailyKey(String day, String uuid, String kit) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+package dev.ocean.pandora.database;
+
+import java.util.UUID;
+
+// One match_history row, also serves as the cursor for the next page
+public record MatchHistoryEntry(
+        long id,
+        UUID matchUuid,
+        UUID player1,
+        UUID player2,
+        UUID winner,
+        String kitName,
+        String arenaName,
+        int duration,
+        String createdAt
+) {
+}
@@ -0,0 +1,210 @@
+package dev.ocean.pandora.database;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.core.match.Match;
+import dev.ocean.pandora.core.match.MatchResult;
+import dev.ocean.pandora.manager.StatsManager;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Match end only enqueues a result, ratings and database writes happen on this worker
+@Getter
+public class MatchResultWriter {
+    private static final int MAX_BATCH = 64;
+    private static final long RETRY_DELAY_MILLIS = 1000L;
+
+    private final Pandora plugin;
+    private final StatsStorage storage;
+    private final StatsManager statsManager;
+    private final BlockingQueue<MatchResult> pending = new LinkedBlockingQueue<>();
+    // Results whose ratings are applied but that the storage refused, only touched by the worker
+    private final List<MatchResult> unwritten = new ArrayList<>();
+    private Thread worker;
+    private volatile boolean running = false;
+
+    public MatchResultWriter(Pandora plugin, StatsStorage storage, StatsManager statsManager) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.statsManager = statsManager;
+    }
+
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "Pandora-MatchResults");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void submit(Match match) {
+        MatchResult result = MatchResult.of(match);
+        if (result != null) {
+            // Keeps both entries cached until the result is applied, or the change could land on an evicted entry
+            statsManager.pin(result.player1());
+            statsManager.pin(result.player2());
+            pending.add(result);
+        }
+    }
+
+    // Stops the worker and writes whatever is still queued on the calling thread
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(5000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<MatchResult> batch = new ArrayList<>();
+        while (pending.drainTo(batch, MAX_BATCH) > 0) {
+            List<MatchResult> deferred = process(batch);
+            deferred.forEach(result -> {
+                plugin.getLogger().severe("Dropped result of match " + result.matchUuid() + ", stats for its players could not be loaded");
+                unpin(result);
+            });
+            batch.clear();
+        }
+
+        write(List.of());
+        unwritten.forEach(result -> plugin.getLogger().severe("Failed to write result of match " + result.matchUuid()));
+        unwritten.clear();
+    }
+
+    private void run() {
+        List<MatchResult> batch = new ArrayList<>();
+        while (running) {
+            try {
+                MatchResult first = pending.poll(1L, TimeUnit.SECONDS);
+                if (first == null) {
+                    if (!unwritten.isEmpty()) {
+                        write(List.of());
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH - 1);
+                List<MatchResult> deferred = process(batch);
+                if (!deferred.isEmpty()) {
+                    // Stats could not be loaded, try these again once the storage had a moment
+                    plugin.getLogger().warning("Deferring " + deferred.size() + " match results, player stats could not be loaded");
+                    pending.addAll(deferred);
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                plugin.getLogger().severe("Failed to process match results: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Applies ratings and writes the history, returns the results that have to be retried
+    private List<MatchResult> process(List<MatchResult> batch) {
+        int kFactor = plugin.getConfigManager().getEloKFactor();
+        List<MatchResult> applied = new ArrayList<>(batch.size());
+        List<MatchResult> deferred = new ArrayList<>();
+
+        for (MatchResult result : batch) {
+            boolean retry = false;
+            try {
+                // Updated in place, the StatsManager writes them with its next flush
+                PlayerStats first;
+                PlayerStats second;
+                try {
+                    first = statsManager.getOrLoad(result.player1(), result.player1Name());
+                    second = statsManager.getOrLoad(result.player2(), result.player2Name());
+                } catch (StorageException | RuntimeException e) {
+                    // Nothing has been applied yet, so the whole result can safely run again
+                    if (e instanceof RuntimeException) {
+                        plugin.getLogger().severe("Failed to load stats for match " + result.matchUuid() + ": " + e);
+                    }
+                    retry = true;
+                    deferred.add(result);
+                    continue;
+                }
+
+                try {
+                    apply(result, first, second, kFactor);
+                } catch (RuntimeException e) {
+                    // Part of it may be applied already, running it again would count that part twice
+                    plugin.getLogger().severe("Failed to apply result of match " + result.matchUuid() + ": " + e);
+                }
+                applied.add(result);
+            } finally {
+                // Dirty now, so the entries stay cached until the next flush writes them
+                if (!retry) {
+                    unpin(result);
+                }
+            }
+        }
+
+        write(applied);
+        return deferred;
+    }
+
+    private void apply(MatchResult result, PlayerStats first, PlayerStats second, int kFactor) {
+        // A null winner is a draw, it counts for rating but not for wins or losses
+        double firstScore = result.winner() == null ? 0.5 : result.winner().equals(result.player1()) ? 1.0 : 0.0;
+        if (result.winner() != null) {
+            PlayerStats winner = firstScore == 1.0 ? first : second;
+            PlayerStats loser = firstScore == 1.0 ? second : first;
+            winner.addWin();
+            loser.addLoss();
+        }
+
+        if (result.ranked()) {
+            int firstElo = first.getElo();
+            int secondElo = second.getElo();
+            statsManager.updateElo(first, eloChange(firstElo, secondElo, firstScore, kFactor));
+            statsManager.updateElo(second, eloChange(secondElo, firstElo, 1.0 - firstScore, kFactor));
+
+            // The kit rating moves on its own scale next to the overall one
+            int firstKitElo = first.getKitElo(result.kitName());
+            int secondKitElo = second.getKitElo(result.kitName());
+            statsManager.updateKitElo(first, result.kitName(), eloChange(firstKitElo, secondKitElo, firstScore, kFactor));
+            statsManager.updateKitElo(second, result.kitName(), eloChange(secondKitElo, firstKitElo, 1.0 - firstScore, kFactor));
+        }
+    }
+
+    // Failed writes are kept and sent again in front of the next batch
+    private void write(List<MatchResult> results) {
+        unwritten.addAll(results);
+        if (unwritten.isEmpty()) {
+            return;
+        }
+
+        boolean written;
+        try {
+            written = storage.writeMatchResults(unwritten);
+        } catch (RuntimeException e) {
+            plugin.getLogger().severe("Failed to write match results: " + e);
+            written = false;
+        }
+
+        if (written) {
+            unwritten.clear();
+        } else {
+            plugin.getLogger().warning("Failed to write " + unwritten.size() + " match results, retrying with the next batch");
+        }
+    }
+
+    private void unpin(MatchResult result) {
+        statsManager.unpin(result.player1());
+        statsManager.unpin(result.player2());
+    }
+
+    private static int eloChange(int rating, int opponent, double score, int kFactor) {
+        double expected = 1.0 / (1.0 + Math.pow(10.0, (opponent - rating) / 400.0));
+        return (int) Math.round(kFactor * (score - expected));
+    }
+}
@@ -1,13 +1,20 @@
 package dev.ocean.pandora.database;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
-@AllArgsConstructor
 @Data
 public class PlayerStats {
+    public static final int DEFAULT_ELO = 1000;
+
     private UUID uuid;
     private String username;
     private int wins;
@@ -16,6 +23,24 @@ public class PlayerStats {
     private int deaths;
     private int elo;
     private int streak;
+    // Kit name to rating, kits without an entry sit at the default
+    @EqualsAndHashCode.Exclude @ToString.Exclude
+    private final Map<String, Integer> kitRatings = new ConcurrentHashMap<>();
+
+    // Set by every mutation, cleared once the StatsManager has written this entry
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    private volatile boolean dirty;
+
+    public PlayerStats(UUID uuid, String username, int wins, int losses, int kills, int deaths, int elo, int streak) {
+        this.uuid = uuid;
+        this.username = username;
+        this.wins = wins;
+        this.losses = losses;
+        this.kills = kills;
+        this.deaths = deaths;
+        this.elo = elo;
+        this.streak = streak;
+    }
 
     public double getKDRatio() {
         return deaths == 0 ? kills : (double) kills / deaths;
@@ -26,25 +51,55 @@ public class PlayerStats {
         return totalGames == 0 ? 0 : (double) wins / totalGames * 100;
     }
 
-    public void addWin() {
+    public synchronized void addWin() {
         wins++;
         streak = Math.max(0, streak) + 1;
+        dirty = true;
     }
 
-    public void addLoss() {
+    public synchronized void addLoss() {
         losses++;
         streak = Math.min(0, streak) - 1;
+        dirty = true;
     }
 
-    public void addKill() {
+    public synchronized void addKill() {
         kills++;
+        dirty = true;
     }
 
-    public void addDeath() {
+    public synchronized void addDeath() {
         deaths++;
+        dirty = true;
     }
 
-    public void updateElo(int change) {
+    public synchronized void updateElo(int change) {
         elo = Math.max(0, elo + change);
+        dirty = true;
+    }
+
+    public int getKitElo(String kitName) {
+        return kitRatings.getOrDefault(kitName.toLowerCase(), DEFAULT_ELO);
+    }
+
+    public synchronized void updateKitElo(String kitName, int change) {
+        kitRatings.put(kitName.toLowerCase(), Math.max(0, getKitElo(kitName) + change));
+        dirty = true;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // Clears the flag and copies the current values in one step, so a concurrent mutation is never lost
+    public synchronized PlayerStats takeSnapshot() {
+        dirty = false;
+        PlayerStats snapshot = new PlayerStats(uuid, username, wins, losses, kills, deaths, elo, streak);
+        snapshot.kitRatings.putAll(kitRatings);
+        return snapshot;
     }
-}
\ No newline at end of file
+}
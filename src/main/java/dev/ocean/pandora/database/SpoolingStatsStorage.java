@@ -0,0 +1,435 @@
+package dev.ocean.pandora.database;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.core.leaderboard.Leaderboard;
+import dev.ocean.pandora.core.match.MatchResult;
+import dev.ocean.pandora.database.log.RecordCodec;
+import dev.ocean.pandora.database.log.RecordLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Puts writes for the SQL database behind a queue, so an outage or slow database costs neither data nor main thread time.
+ *
+ * <pre>
+ * spool/journal.log  writes the database has not taken yet, oldest first
+ * spool/journal.pos  int offset of the first journal record that still has to be replayed
+ * per record:        byte type, long sequence, int count, then count stats rows or match results
+ * </pre>
+ *
+ * Writes wait in a bounded memory queue. A failed write, a full queue or a non-empty journal sends
+ * the write to the journal instead, so the database always receives them in submission order.
+ */
+public class SpoolingStatsStorage implements StatsStorage {
+
+    private static final byte STATS = 1;
+    private static final byte RESULTS = 2;
+    private static final int JOURNAL_CAPACITY = 4 * 1024 * 1024;
+    private static final long MIN_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    private final Pandora plugin;
+    private final DatabaseManager database;
+    private final Deque<byte[]> queue = new ArrayDeque<>();
+    private final int queueSize;
+    // Latest stats written per player that the database does not have yet, reads see these first
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final Path positionPath;
+    private final Thread worker;
+    private RecordLog journal;
+    private int replayPosition;
+    private boolean spilling;
+    private long sequence;
+    private volatile boolean closing;
+
+    public SpoolingStatsStorage(Pandora plugin, DatabaseManager database, int queueSize) {
+        this.plugin = plugin;
+        this.database = database;
+        this.queueSize = Math.max(1, queueSize);
+        Path folder = plugin.getDataFolder().toPath().resolve("spool");
+        this.positionPath = folder.resolve("journal.pos");
+
+        try {
+            journal = new RecordLog(folder.resolve("journal.log"), JOURNAL_CAPACITY);
+            replayPosition = readPosition();
+            journal.recover((offset, payload) -> {
+                if (offset >= replayPosition) {
+                    track(payload);
+                }
+            });
+            replayPosition = Math.min(replayPosition, journal.size());
+            spilling = replayPosition < journal.size();
+            if (spilling) {
+                plugin.getLogger().info("Found spooled writes from a previous run, replaying them");
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to open write journal, writes will only be queued in memory: " + e.getMessage());
+        }
+
+        this.worker = new Thread(this::run, "Pandora-Spool");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public PlayerStats getPlayerStats(UUID uuid) {
+        Pending entry = pending.get(uuid);
+        return entry != null ? entry.stats().takeSnapshot() : database.getPlayerStats(uuid);
+    }
+
+    @Override
+    public PlayerStats loadPlayerStats(UUID uuid) throws StorageException {
+        Pending entry = pending.get(uuid);
+        return entry != null ? entry.stats().takeSnapshot() : database.loadPlayerStats(uuid);
+    }
+
+    // Accepted writes are the spool's problem from here on, so this only fails when the journal does
+    @Override
+    public boolean savePlayerStatsBatch(Collection<PlayerStats> stats) {
+        try {
+            return submit(STATS, stats, null);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to spool player stats: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean writeMatchResults(Collection<MatchResult> results) {
+        try {
+            return submit(RESULTS, null, results);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to spool match results: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<Leaderboard.Entry> loadRatings() {
+        Map<UUID, Leaderboard.Entry> ratings = new HashMap<>();
+        database.loadRatings().forEach(entry -> ratings.put(entry.uuid(), entry));
+        pending.values().forEach(entry -> ratings.put(entry.stats().getUuid(),
+                new Leaderboard.Entry(entry.stats().getUuid(), entry.stats().getUsername(), entry.stats().getElo())));
+        return new ArrayList<>(ratings.values());
+    }
+
+    @Override
+    public Map<String, List<Leaderboard.Entry>> loadKitRatings() {
+        Map<String, List<Leaderboard.Entry>> ratings = database.loadKitRatings();
+        if (pending.isEmpty()) {
+            return ratings;
+        }
+
+        Map<String, List<Leaderboard.Entry>> merged = new HashMap<>();
+        ratings.forEach((kit, entries) -> entries.stream()
+                .filter(entry -> !pending.containsKey(entry.uuid()))
+                .forEach(entry -> merged.computeIfAbsent(kit, key -> new ArrayList<>()).add(entry)));
+        for (Pending entry : pending.values()) {
+            PlayerStats stats = entry.stats();
+            stats.getKitRatings().forEach((kit, rating) -> merged.computeIfAbsent(kit, key -> new ArrayList<>())
+                    .add(new Leaderboard.Entry(stats.getUuid(), stats.getUsername(), rating)));
+        }
+        return merged;
+    }
+
+    // Spooled matches show up here once they reach the database
+    @Override
+    public List<MatchHistoryEntry> getMatchHistory(UUID player, MatchHistoryEntry after, int limit) {
+        return database.getMatchHistory(player, after, limit);
+    }
+
+    @Override
+    public List<MatchHistoryEntry> loadMatchHistory(UUID player, MatchHistoryEntry after, int limit) throws StorageException {
+        return database.loadMatchHistory(player, after, limit);
+    }
+
+    @Override
+    public List<MatchHistoryEntry> getKitHistory(String kitName, MatchHistoryEntry after, int limit) {
+        return database.getKitHistory(kitName, after, limit);
+    }
+
+    @Override
+    public int compactHistory(int retentionDays, int batchSize, boolean archive) {
+        return database.compactHistory(retentionDays, batchSize, archive);
+    }
+
+    @Override
+    public ExecutorService getExecutor() {
+        return database.getExecutor();
+    }
+
+    // Gives the worker a last chance to reach the database, anything left over waits in the journal for the next start
+    @Override
+    public void disconnect() {
+        synchronized (this) {
+            closing = true;
+            notifyAll();
+        }
+        try {
+            worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            plugin.getLogger().warning("Database writes were still running on shutdown");
+        }
+
+        synchronized (this) {
+            if (journal != null) {
+                try {
+                    if (!queue.isEmpty()) {
+                        plugin.getLogger().warning("Spooled " + queue.size() + " writes to disk, they will be replayed on the next start");
+                        spillQueue();
+                    }
+                    journal.close();
+                } catch (IOException e) {
+                    plugin.getLogger().severe("Failed to close write journal: " + e.getMessage());
+                }
+            } else if (!queue.isEmpty()) {
+                plugin.getLogger().severe("Lost " + queue.size() + " writes, the write journal is not available");
+            }
+        }
+        database.disconnect();
+    }
+
+    private synchronized boolean submit(byte type, Collection<PlayerStats> stats, Collection<MatchResult> results) throws IOException {
+        long seq = sequence++;
+        List<PlayerStats> copies = null;
+        if (stats != null) {
+            copies = new ArrayList<>(stats.size());
+            for (PlayerStats entry : stats) {
+                copies.add(entry.takeSnapshot());
+            }
+        }
+        byte[] record = encode(type, seq, copies, results);
+
+        // Once something is in the journal, newer writes go behind it to keep their order
+        if (journal != null && (spilling || queue.size() >= queueSize)) {
+            if (!spilling) {
+                spillQueue();
+            }
+            journal.append(record);
+            journal.force();
+            spilling = true;
+        } else if (queue.size() < queueSize) {
+            queue.add(record);
+            notifyAll();
+        } else {
+            return false;
+        }
+
+        if (copies != null) {
+            copies.forEach(copy -> pending.put(copy.getUuid(), new Pending(copy, seq)));
+        }
+        return true;
+    }
+
+    // Writes stay at the head of the queue or journal until the database took them, so nothing overtakes a retry
+    private void run() {
+        long backoff = MIN_BACKOFF_MILLIS;
+        boolean failing = false;
+
+        while (true) {
+            byte[] record;
+            boolean fromJournal;
+            synchronized (this) {
+                while (!spilling && queue.isEmpty() && !closing) {
+                    try {
+                        wait(250);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                // On shutdown the journal is left for the next start, only memory still needs writing
+                if (spilling && !closing) {
+                    record = journal.read(replayPosition);
+                    fromJournal = true;
+                } else if (!queue.isEmpty()) {
+                    record = queue.peek();
+                    fromJournal = false;
+                } else {
+                    return;
+                }
+            }
+
+            boolean ok = apply(record);
+            synchronized (this) {
+                boolean queued = !fromJournal && queue.peek() == record;
+                if (ok && queued) {
+                    queue.poll();
+                } else if (ok) {
+                    // Either replayed from the journal or moved there by a full queue meanwhile, it is the head either way
+                    advanceJournal();
+                } else if (queued && journal != null) {
+                    try {
+                        spillQueue();
+                    } catch (IOException e) {
+                        plugin.getLogger().severe("Failed to spool writes to disk: " + e.getMessage());
+                    }
+                }
+            }
+
+            if (ok) {
+                if (failing) {
+                    plugin.getLogger().info("Database is reachable again, spooled writes are being replayed");
+                    failing = false;
+                }
+                backoff = MIN_BACKOFF_MILLIS;
+                continue;
+            }
+
+            if (!failing) {
+                plugin.getLogger().warning("Database is unavailable, spooling writes to disk until it is back");
+                failing = true;
+            }
+            if (closing || !sleep(backoff)) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            database.reconnect();
+        }
+    }
+
+    private void advanceJournal() {
+        replayPosition = journal.next(replayPosition);
+        if (replayPosition >= journal.size()) {
+            journal.reset();
+            replayPosition = 0;
+            spilling = false;
+        }
+        // A crash before this lands replays the record once more, stats rows are upserts and match rows are keyed by match_uuid
+        writePosition();
+    }
+
+    // Moves every queued write to the journal in order
+    private void spillQueue() throws IOException {
+        for (byte[] queued : queue) {
+            journal.append(queued);
+        }
+        journal.force();
+        queue.clear();
+        spilling = true;
+    }
+
+    private boolean apply(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte type = in.readByte();
+            long seq = in.readLong();
+            int count = in.readInt();
+
+            if (type == STATS) {
+                List<PlayerStats> stats = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    stats.add(RecordCodec.readStats(in));
+                }
+                if (!database.savePlayerStatsBatch(stats)) {
+                    return false;
+                }
+                // Only drop the overlay when no newer write for that player is still waiting
+                stats.forEach(entry -> pending.computeIfPresent(entry.getUuid(), (uuid, current) -> current.seq() == seq ? null : current));
+                return true;
+            }
+
+            List<MatchResult> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(RecordCodec.readResult(in));
+            }
+            return database.writeMatchResults(results);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Dropping unreadable spooled write: " + e.getMessage());
+            return true;
+        }
+    }
+
+    // Rebuilds the read overlay from journal records that never reached the database
+    private void track(byte[] record) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte type = in.readByte();
+            long seq = in.readLong();
+            sequence = Math.max(sequence, seq + 1);
+            if (type != STATS) {
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                PlayerStats stats = RecordCodec.readStats(in);
+                pending.put(stats.getUuid(), new Pending(stats, seq));
+            }
+        }
+    }
+
+    private static byte[] encode(byte type, long seq, List<PlayerStats> stats, Collection<MatchResult> results) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeLong(seq);
+            if (type == STATS) {
+                out.writeInt(stats.size());
+                for (PlayerStats entry : stats) {
+                    RecordCodec.writeStats(out, entry);
+                }
+            } else {
+                out.writeInt(results.size());
+                for (MatchResult result : results) {
+                    RecordCodec.writeResult(out, result);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private int readPosition() throws IOException {
+        if (!Files.exists(positionPath)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(positionPath);
+        return bytes.length == Integer.BYTES ? ByteBuffer.wrap(bytes).getInt() : 0;
+    }
+
+    private void writePosition() {
+        try {
+            Path temp = positionPath.resolveSibling(positionPath.getFileName() + ".tmp");
+            Files.write(temp, ByteBuffer.allocate(Integer.BYTES).putInt(replayPosition).array());
+            Files.move(temp, positionPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save write journal position: " + e.getMessage());
+        }
+    }
+
+    private boolean sleep(long millis) {
+        // Short naps so shutdown does not wait out a whole backoff
+        long until = System.currentTimeMillis() + millis;
+        while (!closing && System.currentTimeMillis() < until) {
+            try {
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Pending(PlayerStats stats, long seq) {
+    }
+}
@@ -0,0 +1,84 @@
+package dev.ocean.pandora.database;
+
+import dev.ocean.pandora.core.leaderboard.Leaderboard;
+import dev.ocean.pandora.core.match.MatchResult;
+import dev.ocean.pandora.utils.TaskUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+// Where stats and match history live, picked by database.type. Blocking methods must stay off the main thread
+public interface StatsStorage {
+
+    // Null when the player has no stats yet or the lookup failed
+    PlayerStats getPlayerStats(UUID uuid);
+
+    // Unlike getPlayerStats, a failed lookup is not confused with a player that has no stats yet
+    PlayerStats loadPlayerStats(UUID uuid) throws StorageException;
+
+    boolean savePlayerStatsBatch(Collection<PlayerStats> stats);
+
+    boolean writeMatchResults(Collection<MatchResult> results);
+
+    List<Leaderboard.Entry> loadRatings();
+
+    Map<String, List<Leaderboard.Entry>> loadKitRatings();
+
+    // Keyset pagination, pass the last entry of the previous page (or null) to get the next one
+    List<MatchHistoryEntry> getMatchHistory(UUID player, MatchHistoryEntry after, int limit);
+
+    // Same page, but a failed read is not confused with having no more matches
+    List<MatchHistoryEntry> loadMatchHistory(UUID player, MatchHistoryEntry after, int limit) throws StorageException;
+
+    List<MatchHistoryEntry> getKitHistory(String kitName, MatchHistoryEntry after, int limit);
+
+    // Moves one batch of history older than the retention out of the hot table, returns the rows moved.
+    // Backends without a history table have nothing to compact
+    default int compactHistory(int retentionDays, int batchSize, boolean archive) {
+        return 0;
+    }
+
+    ExecutorService getExecutor();
+
+    void disconnect();
+
+    // Fails instead of completing with null when the lookup itself failed
+    default CompletableFuture<PlayerStats> loadPlayerStatsAsync(UUID uuid) {
+        return supplyAsync(() -> {
+            try {
+                return loadPlayerStats(uuid);
+            } catch (StorageException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    default CompletableFuture<List<MatchHistoryEntry>> getMatchHistoryAsync(UUID player, MatchHistoryEntry after, int limit) {
+        return supplyAsync(() -> {
+            try {
+                return loadMatchHistory(player, after, limit);
+            } catch (StorageException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    // Runs on the storage executor and completes back on the main thread, failures included
+    default <T> CompletableFuture<T> supplyAsync(Supplier<T> query) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(query, getExecutor()).whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }, TaskUtils::sync);
+        return future;
+    }
+}
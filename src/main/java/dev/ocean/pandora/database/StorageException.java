@@ -0,0 +1,8 @@
+package dev.ocean.pandora.database;
+
+public class StorageException extends Exception {
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,111 @@
+package dev.ocean.pandora.database.dialect;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class MySqlDialect implements SqlDialect {
+
+    // ER_DUP_KEYNAME, the index is already there
+    private static final int DUPLICATE_KEY_NAME = 1061;
+
+    @Override
+    public String getDriverClassName() {
+        return "com.mysql.cj.jdbc.Driver";
+    }
+
+    @Override
+    public void configure(HikariConfig config, int poolSize) {
+        config.setMaximumPoolSize(poolSize);
+
+        // Turns executeBatch into multi-row statements instead of one round trip per row
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+        // Driver side prepared statement cache, our queries are a small fixed set
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("cacheResultSetMetadata", "true");
+        config.addDataSourceProperty("cacheServerConfiguration", "true");
+        config.addDataSourceProperty("elideSetAutoCommits", "true");
+        config.addDataSourceProperty("useLocalSessionState", "true");
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey() {
+        return "BIGINT AUTO_INCREMENT PRIMARY KEY";
+    }
+
+    @Override
+    public String upsert(String table, List<String> keys, List<String> columns) {
+        List<String> all = new ArrayList<>(keys);
+        all.addAll(columns);
+
+        // VALUES() is deprecated on MySQL 8 but still the only form MariaDB understands
+        String updates = columns.stream()
+                .map(column -> column + " = VALUES(" + column + ")")
+                .collect(Collectors.joining(", "));
+
+        return "INSERT INTO " + table + " (" + String.join(", ", all) + ", updated_at) "
+                + "VALUES (" + SqlDialect.placeholders(all.size()) + ", CURRENT_TIMESTAMP) "
+                + "ON DUPLICATE KEY UPDATE " + updates + ", updated_at = CURRENT_TIMESTAMP";
+    }
+
+    @Override
+    public String upsertIncrement(String table, List<String> keys, List<String> counters) {
+        List<String> all = new ArrayList<>(keys);
+        all.addAll(counters);
+
+        String updates = counters.stream()
+                .map(column -> column + " = " + column + " + VALUES(" + column + ")")
+                .collect(Collectors.joining(", "));
+
+        return "INSERT INTO " + table + " (" + String.join(", ", all) + ", updated_at) "
+                + "VALUES (" + SqlDialect.placeholders(all.size()) + ", CURRENT_TIMESTAMP) "
+                + "ON DUPLICATE KEY UPDATE " + updates + ", updated_at = CURRENT_TIMESTAMP";
+    }
+
+    @Override
+    public String daysAgo(int days) {
+        return "CURRENT_TIMESTAMP - INTERVAL " + days + " DAY";
+    }
+
+    @Override
+    public String insertIgnore(String table, List<String> columns) {
+        return "INSERT IGNORE INTO " + table + " (" + String.join(", ", columns) + ") "
+                + "VALUES (" + SqlDialect.placeholders(columns.size()) + ")";
+    }
+
+    @Override
+    public void setTimestamp(PreparedStatement stmt, int index, long epochMillis) throws SQLException {
+        stmt.setTimestamp(index, new Timestamp(epochMillis));
+    }
+
+    @Override
+    public void createIndex(Statement stmt, String name, String definition) throws SQLException {
+        execute(stmt, "CREATE INDEX " + name + " ON " + definition);
+    }
+
+    @Override
+    public void createUniqueIndex(Statement stmt, String name, String definition) throws SQLException {
+        execute(stmt, "CREATE UNIQUE INDEX " + name + " ON " + definition);
+    }
+
+    // MySQL has no IF NOT EXISTS for indexes
+    private void execute(Statement stmt, String sql) throws SQLException {
+        try {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            if (e.getErrorCode() != DUPLICATE_KEY_NAME) {
+                throw e;
+            }
+        }
+    }
+}
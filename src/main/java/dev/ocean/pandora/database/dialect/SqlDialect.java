@@ -0,0 +1,51 @@
+package dev.ocean.pandora.database.dialect;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+// Everything that differs between the supported engines, DatabaseManager stays engine agnostic
+public interface SqlDialect {
+
+    String getDriverClassName();
+
+    // Pool size, driver properties and connection setup for this engine
+    void configure(HikariConfig config, int poolSize);
+
+    String autoIncrementPrimaryKey();
+
+    // Insert that updates the given columns in place when the key already exists, updated_at is always refreshed
+    String upsert(String table, List<String> keys, List<String> columns);
+
+    // Same as upsert, but adds the given counters onto the existing row instead of replacing them
+    String upsertIncrement(String table, List<String> keys, List<String> counters);
+
+    // Expression for the current time minus the given number of days, comparable with TIMESTAMP columns
+    String daysAgo(int days);
+
+    // Insert that silently skips rows whose unique key already exists
+    String insertIgnore(String table, List<String> columns);
+
+    // Binds a point in time so it compares correctly with CURRENT_TIMESTAMP defaults
+    void setTimestamp(PreparedStatement stmt, int index, long epochMillis) throws SQLException;
+
+    void createIndex(Statement stmt, String name, String definition) throws SQLException;
+
+    void createUniqueIndex(Statement stmt, String name, String definition) throws SQLException;
+
+    static SqlDialect of(String type) {
+        return switch (type.toLowerCase()) {
+            case "mysql" -> new MySqlDialect();
+            case "sqlite" -> new SqliteDialect();
+            default -> throw new IllegalArgumentException("Unsupported database type: " + type);
+        };
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
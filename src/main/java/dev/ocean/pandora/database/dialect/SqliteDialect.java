@@ -0,0 +1,101 @@
+package dev.ocean.pandora.database.dialect;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class SqliteDialect implements SqlDialect {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    @Override
+    public String getDriverClassName() {
+        return "org.sqlite.JDBC";
+    }
+
+    @Override
+    public void configure(HikariConfig config, int poolSize) {
+        // SQLite allows a single writer, more connections only trade waiting for busy errors
+        config.setMaximumPoolSize(1);
+
+        // Passed to the driver as pragmas on every new connection. WAL lets readers run next to the
+        // writer and NORMAL only syncs at checkpoints, which is still crash safe in WAL mode
+        config.addDataSourceProperty("journal_mode", "WAL");
+        config.addDataSourceProperty("synchronous", "NORMAL");
+        config.addDataSourceProperty("busy_timeout", "5000");
+
+        // No statement cache on purpose: the driver prepares in process without a round trip,
+        // and every batch prepares its statement once for all of its rows
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey() {
+        return "INTEGER PRIMARY KEY AUTOINCREMENT";
+    }
+
+    @Override
+    public String upsert(String table, List<String> keys, List<String> columns) {
+        List<String> all = new ArrayList<>(keys);
+        all.addAll(columns);
+
+        String updates = columns.stream()
+                .map(column -> column + " = excluded." + column)
+                .collect(Collectors.joining(", "));
+
+        return "INSERT INTO " + table + " (" + String.join(", ", all) + ", updated_at) "
+                + "VALUES (" + SqlDialect.placeholders(all.size()) + ", CURRENT_TIMESTAMP) "
+                + "ON CONFLICT (" + String.join(", ", keys) + ") DO UPDATE SET "
+                + updates + ", updated_at = CURRENT_TIMESTAMP";
+    }
+
+    @Override
+    public String upsertIncrement(String table, List<String> keys, List<String> counters) {
+        List<String> all = new ArrayList<>(keys);
+        all.addAll(counters);
+
+        String updates = counters.stream()
+                .map(column -> column + " = " + column + " + excluded." + column)
+                .collect(Collectors.joining(", "));
+
+        return "INSERT INTO " + table + " (" + String.join(", ", all) + ", updated_at) "
+                + "VALUES (" + SqlDialect.placeholders(all.size()) + ", CURRENT_TIMESTAMP) "
+                + "ON CONFLICT (" + String.join(", ", keys) + ") DO UPDATE SET "
+                + updates + ", updated_at = CURRENT_TIMESTAMP";
+    }
+
+    // CURRENT_TIMESTAMP is stored as UTC text, datetime() produces the same format
+    @Override
+    public String daysAgo(int days) {
+        return "datetime('now', '-" + days + " days')";
+    }
+
+    @Override
+    public String insertIgnore(String table, List<String> columns) {
+        return "INSERT OR IGNORE INTO " + table + " (" + String.join(", ", columns) + ") "
+                + "VALUES (" + SqlDialect.placeholders(columns.size()) + ")";
+    }
+
+    // The driver would store a Timestamp as epoch millis, the defaults are UTC text
+    @Override
+    public void setTimestamp(PreparedStatement stmt, int index, long epochMillis) throws SQLException {
+        stmt.setString(index, TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(epochMillis)));
+    }
+
+    @Override
+    public void createIndex(Statement stmt, String name, String definition) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS " + name + " ON " + definition);
+    }
+
+    @Override
+    public void createUniqueIndex(Statement stmt, String name, String definition) throws SQLException {
+        stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + name + " ON " + definition);
+    }
+}
@@ -0,0 +1,417 @@
+package dev.ocean.pandora.database.log;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.core.leaderboard.Leaderboard;
+import dev.ocean.pandora.core.match.MatchResult;
+import dev.ocean.pandora.database.MatchHistoryEntry;
+import dev.ocean.pandora.database.PlayerStats;
+import dev.ocean.pandora.database.StatsStorage;
+import dev.ocean.pandora.database.StorageException;
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database-free storage for small nodes, selected with {@code database.type: log}.
+ *
+ * <pre>
+ * stats.log       every saved PlayerStats row, newest wins, compacted into stats.snapshot
+ * stats.snapshot  int magic, short version, int count, then per row: int length, int crc32c, row
+ * matches.log     every finished match, never rewritten
+ * </pre>
+ *
+ * Both logs are {@link RecordLog}s. All stats and an index of match offsets per player and
+ * per kit are kept in memory, so reads never touch the disk except to decode a history page.
+ */
+@Getter
+public class LogStatsStorage implements StatsStorage {
+
+    private static final int MAGIC = 0x5053544C;
+    private static final short VERSION = 1;
+    private static final int STATS_LOG_CAPACITY = 16 * 1024 * 1024;
+    private static final int MATCH_LOG_CAPACITY = 64 * 1024 * 1024;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private final Pandora plugin;
+    private final Path snapshotPath;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("Pandora-Storage-", 0).factory()
+    );
+    private final Map<UUID, PlayerStats> players = new HashMap<>();
+    // Offsets into matches.log in insertion order, which is also id order
+    private final Map<UUID, List<MatchRef>> playerMatches = new HashMap<>();
+    private final Map<String, List<MatchRef>> kitMatches = new HashMap<>();
+    private RecordLog statsLog;
+    private RecordLog matchLog;
+    private long nextMatchId = 1;
+
+    public LogStatsStorage(Pandora plugin) {
+        this.plugin = plugin;
+        Path folder = plugin.getDataFolder().toPath().resolve("stats");
+        this.snapshotPath = folder.resolve("stats.snapshot");
+
+        long start = System.currentTimeMillis();
+        int snapshotRows = 0;
+        try {
+            snapshotRows = readSnapshot();
+        } catch (IOException e) {
+            // Rows read before the damage stay, the log replay below brings back everything written since
+            plugin.getLogger().severe("Failed to read stats snapshot, falling back to the stats log: " + e.getMessage());
+            setAsideSnapshot();
+        }
+
+        try {
+            statsLog = new RecordLog(folder.resolve("stats.log"), STATS_LOG_CAPACITY);
+            int statsRecords = statsLog.recover((offset, payload) -> putStats(decodeStats(payload)));
+
+            matchLog = new RecordLog(folder.resolve("matches.log"), MATCH_LOG_CAPACITY);
+            int matchRecords = matchLog.recover((offset, payload) -> indexMatch(offset, decodeMatch(payload)));
+
+            plugin.getLogger().info("Loaded log storage in " + (System.currentTimeMillis() - start) + "ms ("
+                    + snapshotRows + " snapshot rows, " + statsRecords + " stat records, " + matchRecords + " matches)");
+        } catch (IOException e) {
+            // A half recovered log must not be written to, a compaction would drop whatever it missed
+            plugin.getLogger().severe("Failed to open log storage, stats will not be saved: " + e.getMessage());
+            closeLogs();
+        }
+    }
+
+    @Override
+    public synchronized PlayerStats getPlayerStats(UUID uuid) {
+        PlayerStats stats = players.get(uuid);
+        // Callers mutate what they get, the stored row only changes through savePlayerStatsBatch
+        return stats == null ? null : stats.takeSnapshot();
+    }
+
+    @Override
+    public PlayerStats loadPlayerStats(UUID uuid) throws StorageException {
+        if (statsLog == null) {
+            throw new StorageException("Log storage is not open", new IOException("stats.log unavailable"));
+        }
+        return getPlayerStats(uuid);
+    }
+
+    @Override
+    public synchronized boolean savePlayerStatsBatch(Collection<PlayerStats> stats) {
+        if (statsLog == null) {
+            return false;
+        }
+
+        try {
+            for (PlayerStats entry : stats) {
+                statsLog.append(encodeStats(entry));
+                putStats(entry.takeSnapshot());
+            }
+            statsLog.force();
+
+            if (statsLog.size() > STATS_LOG_CAPACITY * 3 / 4) {
+                compact();
+            }
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save player stats: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized boolean writeMatchResults(Collection<MatchResult> results) {
+        if (matchLog == null) {
+            return false;
+        }
+
+        try {
+            for (MatchResult result : results) {
+                MatchHistoryEntry entry = new MatchHistoryEntry(
+                        nextMatchId,
+                        result.matchUuid(),
+                        result.player1(),
+                        result.player2(),
+                        result.winner(),
+                        result.kitName(),
+                        result.arenaName(),
+                        result.duration(),
+                        TIME_FORMAT.format(Instant.ofEpochMilli(result.endedAt()))
+                );
+                int offset = matchLog.append(encodeMatch(entry));
+                indexMatch(offset, entry);
+            }
+            matchLog.force();
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to write match results: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized List<Leaderboard.Entry> loadRatings() {
+        List<Leaderboard.Entry> ratings = new ArrayList<>(players.size());
+        players.values().forEach(stats -> ratings.add(new Leaderboard.Entry(stats.getUuid(), stats.getUsername(), stats.getElo())));
+        return ratings;
+    }
+
+    @Override
+    public synchronized Map<String, List<Leaderboard.Entry>> loadKitRatings() {
+        Map<String, List<Leaderboard.Entry>> ratings = new HashMap<>();
+        for (PlayerStats stats : players.values()) {
+            stats.getKitRatings().forEach((kit, rating) -> ratings.computeIfAbsent(kit, key -> new ArrayList<>())
+                    .add(new Leaderboard.Entry(stats.getUuid(), stats.getUsername(), rating)));
+        }
+        return ratings;
+    }
+
+    @Override
+    public List<MatchHistoryEntry> getMatchHistory(UUID player, MatchHistoryEntry after, int limit) {
+        try {
+            return loadMatchHistory(player, after, limit);
+        } catch (StorageException e) {
+            plugin.getLogger().severe("Failed to read match history: " + e.getCause().getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public synchronized List<MatchHistoryEntry> loadMatchHistory(UUID player, MatchHistoryEntry after, int limit) throws StorageException {
+        if (matchLog == null) {
+            throw new StorageException("Log storage is not open", new IOException("matches.log unavailable"));
+        }
+
+        try {
+            return readPage(playerMatches.get(player), after, limit);
+        } catch (IOException e) {
+            throw new StorageException("Failed to read match history for " + player, e);
+        }
+    }
+
+    @Override
+    public synchronized List<MatchHistoryEntry> getKitHistory(String kitName, MatchHistoryEntry after, int limit) {
+        if (matchLog == null) {
+            return List.of();
+        }
+
+        try {
+            return readPage(kitMatches.get(kitName.toLowerCase()), after, limit);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to read match history: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Storage tasks were still running on shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            closeLogs();
+        }
+    }
+
+    private void closeLogs() {
+        try {
+            if (statsLog != null) {
+                statsLog.close();
+            }
+            if (matchLog != null) {
+                matchLog.close();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to close log storage: " + e.getMessage());
+        } finally {
+            statsLog = null;
+            matchLog = null;
+        }
+    }
+
+    // Newest first, starting below the cursor id
+    private List<MatchHistoryEntry> readPage(List<MatchRef> refs, MatchHistoryEntry after, int limit) throws IOException {
+        List<MatchHistoryEntry> page = new ArrayList<>(limit);
+        if (refs == null) {
+            return page;
+        }
+
+        int index = refs.size() - 1;
+        if (after != null) {
+            index = lowerIndex(refs, after.id());
+        }
+
+        for (; index >= 0 && page.size() < limit; index--) {
+            page.add(decodeMatch(matchLog.read(refs.get(index).offset())));
+        }
+        return page;
+    }
+
+    // Index of the last ref with an id below the given one, -1 if there is none
+    private static int lowerIndex(List<MatchRef> refs, long id) {
+        int low = 0;
+        int high = refs.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (refs.get(mid).id() < id) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private void putStats(PlayerStats stats) {
+        players.put(stats.getUuid(), stats);
+    }
+
+    private void indexMatch(int offset, MatchHistoryEntry entry) {
+        MatchRef ref = new MatchRef(entry.id(), offset);
+        playerMatches.computeIfAbsent(entry.player1(), key -> new ArrayList<>()).add(ref);
+        playerMatches.computeIfAbsent(entry.player2(), key -> new ArrayList<>()).add(ref);
+        kitMatches.computeIfAbsent(entry.kitName().toLowerCase(), key -> new ArrayList<>()).add(ref);
+        nextMatchId = Math.max(nextMatchId, entry.id() + 1);
+    }
+
+    // Writes every row to a fresh snapshot, then the log they came from can be dropped
+    private void compact() throws IOException {
+        Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(players.size());
+            for (PlayerStats stats : players.values()) {
+                byte[] row = encodeStats(stats);
+                out.writeInt(row.length);
+                out.writeInt(RecordCodec.checksum(row));
+                out.write(row);
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(snapshotPath.getParent());
+        // The snapshot and its directory entry are on disk now, a crash before this line only replays the log over it
+        statsLog.reset();
+        plugin.getLogger().info("Compacted stats log into a snapshot of " + players.size() + " players");
+    }
+
+    // Makes the rename durable, some platforms cannot open a directory and do not need this
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Keeps a damaged snapshot for inspection, the next compaction writes a new one from the log
+    private void setAsideSnapshot() {
+        try {
+            Files.move(snapshotPath, snapshotPath.resolveSibling(snapshotPath.getFileName() + ".corrupt"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to move the damaged stats snapshot aside: " + e.getMessage());
+        }
+    }
+
+    private int readSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return 0;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(snapshotPath)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException("Unknown stats snapshot format");
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                byte[] row = new byte[in.readInt()];
+                int crc = in.readInt();
+                in.readFully(row);
+                if (RecordCodec.checksum(row) != crc) {
+                    throw new IOException("Corrupt stats snapshot row " + i);
+                }
+                putStats(decodeStats(row));
+            }
+            return count;
+        } catch (EOFException e) {
+            throw new IOException("Truncated stats snapshot", e);
+        }
+    }
+
+    private static byte[] encodeStats(PlayerStats stats) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            RecordCodec.writeStats(out, stats);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static PlayerStats decodeStats(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return RecordCodec.readStats(in);
+        }
+    }
+
+    private static byte[] encodeMatch(MatchHistoryEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(entry.id());
+            RecordCodec.writeUuid(out, entry.matchUuid());
+            RecordCodec.writeUuid(out, entry.player1());
+            RecordCodec.writeUuid(out, entry.player2());
+            out.writeBoolean(entry.winner() != null);
+            if (entry.winner() != null) {
+                RecordCodec.writeUuid(out, entry.winner());
+            }
+            out.writeUTF(entry.kitName());
+            out.writeUTF(entry.arenaName());
+            out.writeInt(entry.duration());
+            out.writeUTF(entry.createdAt());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MatchHistoryEntry decodeMatch(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long id = in.readLong();
+            UUID matchUuid = RecordCodec.readUuid(in);
+            UUID player1 = RecordCodec.readUuid(in);
+            UUID player2 = RecordCodec.readUuid(in);
+            UUID winner = in.readBoolean() ? RecordCodec.readUuid(in) : null;
+            return new MatchHistoryEntry(id, matchUuid, player1, player2, winner,
+                    in.readUTF(), in.readUTF(), in.readInt(), in.readUTF());
+        }
+    }
+
+    private record MatchRef(long id, int offset) {
+    }
+}
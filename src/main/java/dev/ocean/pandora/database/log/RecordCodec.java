@@ -0,0 +1,108 @@
+package dev.ocean.pandora.database.log;
+
+import dev.ocean.pandora.core.match.MatchResult;
+import dev.ocean.pandora.database.PlayerStats;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+// Binary layouts shared by the log storage and the write spool
+public final class RecordCodec {
+
+    private RecordCodec() {
+    }
+
+    public static void writeStats(DataOutputStream out, PlayerStats stats) throws IOException {
+        writeUuid(out, stats.getUuid());
+        out.writeUTF(stats.getUsername());
+        out.writeInt(stats.getWins());
+        out.writeInt(stats.getLosses());
+        out.writeInt(stats.getKills());
+        out.writeInt(stats.getDeaths());
+        out.writeInt(stats.getElo());
+        out.writeInt(stats.getStreak());
+
+        Map<String, Integer> kitRatings = new HashMap<>(stats.getKitRatings());
+        out.writeShort(kitRatings.size());
+        for (Map.Entry<String, Integer> rating : kitRatings.entrySet()) {
+            out.writeUTF(rating.getKey());
+            out.writeInt(rating.getValue());
+        }
+    }
+
+    public static PlayerStats readStats(DataInputStream in) throws IOException {
+        PlayerStats stats = new PlayerStats(readUuid(in), in.readUTF(),
+                in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+
+        int kits = in.readUnsignedShort();
+        for (int i = 0; i < kits; i++) {
+            stats.getKitRatings().put(in.readUTF(), in.readInt());
+        }
+        return stats;
+    }
+
+    public static void writeResult(DataOutputStream out, MatchResult result) throws IOException {
+        writeUuid(out, result.matchUuid());
+        out.writeUTF(result.kitName());
+        out.writeUTF(result.arenaName());
+        out.writeBoolean(result.ranked());
+        writeUuid(out, result.player1());
+        writeNullableUTF(out, result.player1Name());
+        writeUuid(out, result.player2());
+        writeNullableUTF(out, result.player2Name());
+        out.writeBoolean(result.winner() != null);
+        if (result.winner() != null) {
+            writeUuid(out, result.winner());
+        }
+        out.writeInt(result.duration());
+        out.writeLong(result.endedAt());
+    }
+
+    public static MatchResult readResult(DataInputStream in) throws IOException {
+        return new MatchResult(
+                readUuid(in),
+                in.readUTF(),
+                in.readUTF(),
+                in.readBoolean(),
+                readUuid(in),
+                readNullableUTF(in),
+                readUuid(in),
+                readNullableUTF(in),
+                in.readBoolean() ? readUuid(in) : null,
+                in.readInt(),
+                in.readLong()
+        );
+    }
+
+    // Player names are null for players that were offline when the match ended
+    public static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    public static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    public static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    public static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,134 @@
+package dev.ocean.pandora.database.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only memory-mapped record file.
+ *
+ * <pre>
+ * per record: int length, int crc32c, byte[length] payload
+ * </pre>
+ *
+ * A zero length marks the end of the log. On open the records are scanned up to the
+ * first frame that is truncated or fails its checksum, which is where a crash stopped
+ * writing, and appends continue from there.
+ */
+public class RecordLog implements Closeable {
+
+    private static final int HEADER = Integer.BYTES * 2;
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+
+    public RecordLog(Path path, int initialCapacity) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map((int) Math.max(initialCapacity, channel.size()));
+    }
+
+    public interface RecordConsumer {
+        void accept(int offset, byte[] payload) throws IOException;
+    }
+
+    // Replays every intact record and positions the log after the last one
+    public synchronized int recover(RecordConsumer consumer) throws IOException {
+        int offset = 0;
+        int records = 0;
+
+        while (offset + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER + length > buffer.capacity()) {
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER, payload);
+            if (RecordCodec.checksum(payload) != buffer.getInt(offset + Integer.BYTES)) {
+                break;
+            }
+
+            consumer.accept(offset, payload);
+            offset += HEADER + length;
+            records++;
+        }
+
+        position = offset;
+        // Wipe a torn tail so a later recovery cannot mistake it for records
+        if (position + Integer.BYTES <= buffer.capacity() && buffer.getInt(position) != 0) {
+            clear(position);
+        }
+        return records;
+    }
+
+    // Returns the offset of the new record, growing the mapping when it is full
+    public synchronized int append(byte[] payload) throws IOException {
+        int needed = position + HEADER + payload.length + Integer.BYTES;
+        if (needed > buffer.capacity()) {
+            long grown = Math.max((long) buffer.capacity() * 2, needed);
+            if (grown > Integer.MAX_VALUE) {
+                throw new IOException("Record log " + path.getFileName() + " is full");
+            }
+            map((int) grown);
+        }
+
+        int offset = position;
+        buffer.put(offset + HEADER, payload);
+        buffer.putInt(offset + Integer.BYTES, RecordCodec.checksum(payload));
+        // The length goes in last, a record is only visible once it is complete
+        buffer.putInt(offset, payload.length);
+        position = offset + HEADER + payload.length;
+        return offset;
+    }
+
+    public synchronized byte[] read(int offset) {
+        byte[] payload = new byte[buffer.getInt(offset)];
+        buffer.get(offset + HEADER, payload);
+        return payload;
+    }
+
+    // Offset of the record after the one at the given offset
+    public synchronized int next(int offset) {
+        return offset + HEADER + buffer.getInt(offset);
+    }
+
+    public synchronized int size() {
+        return position;
+    }
+
+    // Drops every record, used once their contents live in a snapshot
+    public synchronized void reset() {
+        clear(0);
+        position = 0;
+        buffer.force();
+    }
+
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void clear(int from) {
+        byte[] zeros = new byte[8192];
+        for (int offset = from; offset < buffer.capacity(); offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+        }
+    }
+}
@@ -110,14 +110,10 @@ public class QueueMenu extends Menu {
     }
 
     private int countPlayersInQueue(Kit kit) {
-        return Pandora.getInstance().getQueueManager().getQueueSize(kit, ranked);
+        return Pandora.getInstance().getKitManager().getCounters(kit).getQueued(ranked);
     }
 
     private int countPlayersPlaying(Kit kit) {
-        // Count players currently in matches with this kit
-        return (int) Pandora.getInstance().getMatchManager().getActiveMatches().stream()
-                .filter(match -> match.getKit().equals(kit))
-                .mapToLong(match -> match.getRed().size() + match.getBlue().size())
-                .sum();
+        return Pandora.getInstance().getKitManager().getCounters(kit).getPlaying(ranked);
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package dev.ocean.pandora.listener;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.core.arena.Arena;
+import dev.ocean.pandora.core.kit.Kit;
+import dev.ocean.pandora.core.match.Match;
+import dev.ocean.pandora.core.player.User;
+import dev.ocean.pandora.manager.UserManager;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+
+public class BlockListener implements Listener {
+    private final Pandora plugin;
+    private final UserManager userManager;
+
+    public BlockListener(Pandora plugin) {
+        this.plugin = plugin;
+        this.userManager = plugin.getUserManager();
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        handleChange(event.getPlayer(), event.getBlock(), event.getBlockReplacedState().getBlockData(), event);
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        handleChange(event.getPlayer(), event.getBlock(), event.getBlock().getBlockData(), event);
+    }
+
+    private void handleChange(Player player, Block block, BlockData previous, Cancellable event) {
+        User user = userManager.getUser(player.getUniqueId());
+        Match match = user.getCurrentMatch();
+
+        if (match == null) {
+            return;
+        }
+
+        // Only build kits may change blocks, and only inside their arena
+        Arena arena = match.getArena();
+        if (!match.getKit().getEnabledRules().contains(Kit.Rules.BUILD)
+                || !plugin.getArenaManager().isInArena(block.getWorld(), block.getX(), block.getY(), block.getZ(), arena)
+                || (arena.getBuildLimit() > 0 && block.getY() > arena.getBuildLimit())) {
+            event.setCancelled(true);
+            return;
+        }
+
+        match.getJournal().record(block.getX(), block.getY(), block.getZ(), previous);
+    }
+}
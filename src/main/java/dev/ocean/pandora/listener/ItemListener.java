@@ -62,10 +62,7 @@ public class ItemListener implements Listener {
             event.setCancelled(true);
         } else if (displayName.equals(plugin.getLobbyManager().getLobbyItemManager().getLeaveQueueName())) {
             if (user.getStatus() == UserStatus.IN_QUEUE) {
-                // TODO: Implement queue leaving
-                user.setStatus(UserStatus.IN_LOBBY);
-                plugin.getLobbyManager().giveItems(player);
-                player.sendMessage("§eYou have left the queue!");
+                plugin.getQueueManager().leaveQueue(user);
             }
             event.setCancelled(true);
         }
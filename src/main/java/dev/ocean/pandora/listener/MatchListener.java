@@ -4,19 +4,25 @@ import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.core.match.Match;
 import dev.ocean.pandora.core.match.impl.OneVersusOneMatch;
 import dev.ocean.pandora.core.match.impl.SumoMatch;
+import dev.ocean.pandora.database.PlayerStats;
 import dev.ocean.pandora.manager.UserManager;
 import dev.ocean.pandora.core.player.User;
 import dev.ocean.pandora.core.player.UserStatus;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 public class MatchListener implements Listener {
+    private static final long STATS_RETRY_TICKS = 100L;
+
     private final Pandora plugin;
     private final UserManager userManager;
 
@@ -25,6 +31,15 @@ public class MatchListener implements Listener {
         this.userManager = plugin.getUserManager();
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        plugin.getStatsManager().preload(event.getUniqueId(), event.getName());
+    }
+
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
@@ -32,6 +47,31 @@ public class MatchListener implements Listener {
 
         user.setStatus(UserStatus.IN_LOBBY);
         plugin.getLobbyManager().giveItems(player);
+
+        // Normally ready from pre-login, otherwise fetched in the background
+        PlayerStats stats = plugin.getStatsManager().attach(player.getUniqueId(), player.getName());
+        if (stats != null) {
+            user.setStats(stats);
+        } else {
+            loadStats(player, user);
+        }
+    }
+
+    // Stats stay unattached until a lookup succeeds, ranked queues wait for them meanwhile
+    private void loadStats(Player player, User user) {
+        plugin.getStatsManager().load(player.getUniqueId(), player.getName()).whenComplete((stats, error) -> {
+            if (error == null) {
+                user.setStats(stats);
+                return;
+            }
+
+            plugin.getLogger().warning("Failed to load stats for " + player.getName() + ", retrying: " + error.getMessage());
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                if (player.isOnline()) {
+                    loadStats(player, user);
+                }
+            }, STATS_RETRY_TICKS);
+        });
     }
 
     @EventHandler
@@ -40,13 +80,19 @@ public class MatchListener implements Listener {
         User user = userManager.getUser(player.getUniqueId());
 
         if (user.getCurrentMatch() != null) {
-            plugin.getMatchManager().endMatch(user.getCurrentMatch().getUuid());
+            // Leaving mid-match forfeits it
+            Match match = user.getCurrentMatch();
+            if (!match.isEnded()) {
+                match.setWinners(match.getOpponents(user));
+            }
+            plugin.getMatchManager().endMatch(match.getUuid());
         }
 
         if (user.getStatus() == UserStatus.IN_QUEUE) {
             plugin.getQueueManager().leaveQueue(user);
         }
 
+        plugin.getStatsManager().flushAsync(player.getUniqueId());
         userManager.removeUser(player.getUniqueId());
     }
 
@@ -66,12 +112,14 @@ public class MatchListener implements Listener {
                 if (!oneVsOneMatch.isBoxingKit()) {
                     Player killer = player.getKiller();
                     if (killer != null) {
+                        match.setWinners(match.getOpponents(user));
                         plugin.getMatchManager().endMatch(match.getUuid());
                     }
                 }
             } else if (!(match instanceof SumoMatch)) {
                 Player killer = player.getKiller();
                 if (killer != null) {
+                    match.setWinners(match.getOpponents(user));
                     plugin.getMatchManager().endMatch(match.getUuid());
                 }
             }
@@ -0,0 +1,267 @@
+package dev.ocean.pandora.manager;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.config.MainConfig;
+import dev.ocean.pandora.core.arena.Arena;
+import dev.ocean.pandora.core.arena.instance.ArenaStamp;
+import dev.ocean.pandora.core.arena.instance.VoidGenerator;
+import dev.ocean.pandora.core.kit.Kit;
+import dev.ocean.pandora.utils.BlockPos;
+import dev.ocean.pandora.utils.TaskUtils;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.block.data.BlockData;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+@Getter
+public class ArenaInstanceManager {
+
+    private final Pandora plugin;
+    private final BitSet usedSlots = new BitSet();
+    private final Map<Arena, Integer> instances = new HashMap<>();
+    // Instances dropped by a reload while a match still runs on them, their slot frees up on release
+    private final Map<Arena, Integer> retired = new HashMap<>();
+    private World world;
+    private int stampsInFlight = 0;
+    // Templates currently being stamped, one entry per stamp
+    private final List<Arena> stamping = new ArrayList<>();
+    // Bumped on reset so stamps started before a reload are discarded
+    private int generation = 0;
+
+    public ArenaInstanceManager(Pandora plugin) {
+        this.plugin = plugin;
+    }
+
+    public void load() {
+        MainConfig.ArenaSettingsConfig settings = plugin.getConfigManager().getArenaSettings();
+        if (!settings.isInstancing() || world != null) {
+            return;
+        }
+
+        world = Bukkit.getWorld(settings.getInstanceWorld());
+        if (world == null) {
+            world = new WorldCreator(settings.getInstanceWorld())
+                    .generator(new VoidGenerator())
+                    .generateStructures(false)
+                    .createWorld();
+        }
+
+        if (world != null) {
+            plugin.getLogger().info("Arena instancing enabled in world " + world.getName());
+        } else {
+            plugin.getLogger().severe("Failed to create arena instance world " + settings.getInstanceWorld());
+        }
+    }
+
+    // Stamps still in flight keep their slot and counter until they finish, then clear what they placed
+    public void reset() {
+        for (Map.Entry<Arena, Integer> entry : instances.entrySet()) {
+            if (plugin.getArenaManager().getPool().isReserved(entry.getKey())) {
+                retired.put(entry.getKey(), entry.getValue());
+            } else {
+                discard(entry.getKey(), entry.getValue());
+            }
+        }
+        instances.clear();
+        stamping.clear();
+        generation++;
+    }
+
+    // Called for every arena a match gives back
+    public void release(Arena arena) {
+        Integer slot = retired.remove(arena);
+        if (slot != null) {
+            discard(arena, slot);
+        }
+    }
+
+    // Clears an instance back to air, the slot is only handed out again once that is done
+    private void discard(Arena instance, int slot) {
+        int minX = Math.min(instance.getMin().getBlockX(), instance.getMax().getBlockX());
+        int minY = Math.min(instance.getMin().getBlockY(), instance.getMax().getBlockY());
+        int minZ = Math.min(instance.getMin().getBlockZ(), instance.getMax().getBlockZ());
+        int maxX = Math.max(instance.getMin().getBlockX(), instance.getMax().getBlockX());
+        int maxY = Math.max(instance.getMin().getBlockY(), instance.getMax().getBlockY());
+        int maxZ = Math.max(instance.getMin().getBlockZ(), instance.getMax().getBlockZ());
+
+        long[] positions = new long[(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1)];
+        int index = 0;
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    positions[index++] = BlockPos.pack(x, y, z);
+                }
+            }
+        }
+        BlockData[] blocks = new BlockData[positions.length];
+        Arrays.fill(blocks, Material.AIR.createBlockData());
+
+        plugin.getArenaManager().loadChunks(world, minX, minZ, maxX, maxZ).whenComplete((chunks, throwable) -> TaskUtils.sync(() -> {
+            if (throwable != null) {
+                // Left marked as used, stamping over leftovers would mix two arenas
+                plugin.getLogger().severe("Failed to clear arena instance " + instance.getName() + ": " + throwable.getMessage());
+                return;
+            }
+            plugin.getBlockTaskManager().submit(new ArenaStamp(world, positions, blocks, () -> usedSlots.clear(slot)));
+        }));
+    }
+
+    // Starts stamps until those in flight for the kit cover the reservations waiting on it
+    public void requestInstances(Kit kit, int waiting) {
+        int inFlight = 0;
+        for (Arena template : stamping) {
+            if (template.supports(kit.getName())) {
+                inFlight++;
+            }
+        }
+
+        while (inFlight < waiting && requestInstance(kit)) {
+            inFlight++;
+        }
+    }
+
+    // Starts copying a template that supports the kit, returns false when nothing could be started
+    public boolean requestInstance(Kit kit) {
+        MainConfig.ArenaSettingsConfig settings = plugin.getConfigManager().getArenaSettings();
+        if (!settings.isInstancing() || world == null || stampsInFlight >= settings.getMaxConcurrentStamps()) {
+            return false;
+        }
+
+        Arena template = findTemplate(kit);
+        if (template == null) {
+            return false;
+        }
+
+        int slot = usedSlots.nextClearBit(0);
+        if (slot >= settings.getMaxInstances()) {
+            return false;
+        }
+
+        // Corners may be configured in any order
+        int width = Math.abs(template.getMax().getBlockX() - template.getMin().getBlockX());
+        int depth = Math.abs(template.getMax().getBlockZ() - template.getMin().getBlockZ());
+        if (Math.max(width, depth) >= settings.getInstanceSpacing()) {
+            plugin.getLogger().warning("Arena template " + template.getName() + " is larger than the instance spacing");
+            return false;
+        }
+
+        usedSlots.set(slot);
+        stampsInFlight++;
+        stamping.add(template);
+        stamp(template, slot, settings);
+        return true;
+    }
+
+    private Arena findTemplate(Kit kit) {
+        for (Arena template : plugin.getArenaManager().getTemplates()) {
+            if (template.supports(kit.getName())) {
+                return template;
+            }
+        }
+        return null;
+    }
+
+    private void stamp(Arena template, int slot, MainConfig.ArenaSettingsConfig settings) {
+        int startGeneration = generation;
+        World source = template.getMin().getWorld();
+        int minX = Math.min(template.getMin().getBlockX(), template.getMax().getBlockX());
+        int minY = Math.min(template.getMin().getBlockY(), template.getMax().getBlockY());
+        int minZ = Math.min(template.getMin().getBlockZ(), template.getMax().getBlockZ());
+        int maxX = Math.max(template.getMin().getBlockX(), template.getMax().getBlockX());
+        int maxY = Math.max(template.getMin().getBlockY(), template.getMax().getBlockY());
+        int maxZ = Math.max(template.getMin().getBlockZ(), template.getMax().getBlockZ());
+
+        // Slot origin on the grid, the template min corner lands there
+        int dx = (slot % settings.getInstanceGridWidth()) * settings.getInstanceSpacing() - minX;
+        int dz = (slot / settings.getInstanceGridWidth()) * settings.getInstanceSpacing() - minZ;
+
+        plugin.getArenaManager().loadChunks(source, minX, minZ, maxX, maxZ).thenApply(chunks -> {
+            // Snapshots are immutable, so reading the blocks can happen off the main thread
+            List<ChunkSnapshot> snapshots = new ArrayList<>(chunks.size());
+            chunks.forEach(chunk -> snapshots.add(chunk.getChunkSnapshot(false, false, false)));
+            return snapshots;
+        }).thenApplyAsync(snapshots -> {
+            // Air is copied too, the void world keeps whatever an earlier instance or server run left in the slot
+            long[] positions = new long[1024];
+            List<BlockData> blocks = new ArrayList<>();
+
+            for (ChunkSnapshot snapshot : snapshots) {
+                int baseX = snapshot.getX() << 4;
+                int baseZ = snapshot.getZ() << 4;
+
+                for (int x = Math.max(minX, baseX); x <= Math.min(maxX, baseX + 15); x++) {
+                    for (int z = Math.max(minZ, baseZ); z <= Math.min(maxZ, baseZ + 15); z++) {
+                        for (int y = minY; y <= maxY; y++) {
+                            BlockData data = snapshot.getBlockData(x & 15, y, z & 15);
+                            if (blocks.size() == positions.length) {
+                                positions = Arrays.copyOf(positions, positions.length * 2);
+                            }
+                            positions[blocks.size()] = BlockPos.pack(x + dx, y, z + dz);
+                            blocks.add(data);
+                        }
+                    }
+                }
+            }
+
+            return new StampData(Arrays.copyOf(positions, blocks.size()), blocks.toArray(new BlockData[0]));
+        }, TaskUtils::async).thenComposeAsync(data -> plugin.getArenaManager()
+                .loadChunks(world, minX + dx, minZ + dz, maxX + dx, maxZ + dz)
+                .thenCompose(ignored -> {
+                    CompletableFuture<Void> placed = new CompletableFuture<>();
+                    plugin.getBlockTaskManager().submit(new ArenaStamp(world, data.positions(), data.blocks(), () -> placed.complete(null)));
+                    return placed;
+                }), TaskUtils::sync
+        ).thenRun(() -> {
+            if (startGeneration != generation) {
+                return;
+            }
+
+            Arena instance = createInstance(template, slot, dx, dz);
+            instances.put(instance, slot);
+            plugin.getArenaManager().addArena(instance);
+        }).whenComplete((ignored, throwable) -> TaskUtils.sync(() -> {
+            // Single exit for the whole chain, so a failure at any step gives the slot and counter back
+            stampsInFlight--;
+            stamping.remove(template);
+            if (throwable != null) {
+                plugin.getLogger().severe("Failed to stamp arena " + template.getName() + ": " + throwable.getMessage());
+            }
+            if (throwable != null || startGeneration != generation) {
+                // Part or all of the template may already be placed
+                discard(createInstance(template, slot, dx, dz), slot);
+            }
+        }));
+    }
+
+    private Arena createInstance(Arena template, int slot, int dx, int dz) {
+        return new Arena(
+                template.getName() + "#" + slot,
+                template.getDisplayName(),
+                offset(template.getRedSpawn(), dx, dz),
+                offset(template.getBlueSpawn(), dx, dz),
+                offset(template.getMin(), dx, dz),
+                offset(template.getMax(), dx, dz),
+                template.getBuildLimit(),
+                template.getKits()
+        );
+    }
+
+    private Location offset(Location location, int dx, int dz) {
+        return new Location(world, location.getX() + dx, location.getY(), location.getZ() + dz,
+                location.getYaw(), location.getPitch());
+    }
+
+    public boolean isInstance(Arena arena) {
+        return instances.containsKey(arena);
+    }
+
+    private record StampData(long[] positions, BlockData[] blocks) {
+    }
+}
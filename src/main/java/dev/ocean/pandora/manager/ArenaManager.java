@@ -2,18 +2,33 @@ package dev.ocean.pandora.manager;
 
 import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.core.arena.Arena;
+import dev.ocean.pandora.core.arena.ArenaIndex;
+import dev.ocean.pandora.core.arena.ArenaPool;
+import dev.ocean.pandora.core.arena.snapshot.ArenaSnapshot;
+import dev.ocean.pandora.core.block.BlockTask;
+import dev.ocean.pandora.core.kit.Kit;
+import dev.ocean.pandora.utils.TaskUtils;
 import dev.ocean.pandora.config.ArenaConfig;
 import lombok.Getter;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.World;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Getter
 public class ArenaManager {
     private final Pandora plugin;
     private final Map<String, Arena> arenas = new HashMap<>();
+    private final ArenaPool pool = new ArenaPool();
+    private final ArenaIndex index = new ArenaIndex();
+    private final List<Arena> templates = new ArrayList<>();
     private final Random random = new Random();
 
     public ArenaManager(Pandora plugin) {
@@ -22,6 +37,9 @@ public class ArenaManager {
 
     public void loadArenasFromConfig() {
         arenas.clear();
+        pool.clear();
+        templates.clear();
+        plugin.getArenaInstanceManager().reset();
 
         ArenaConfig config = plugin.getConfigManager().getArenaConfig();
 
@@ -33,6 +51,12 @@ public class ArenaManager {
                 Arena arena = createArenaFromConfig(arenaName, data);
                 if (arena != null) {
                     arenas.put(arenaName, arena);
+                    // Templates are only copied from, a match on one would be stamped into every new instance
+                    if (data.isTemplate()) {
+                        templates.add(arena);
+                    } else {
+                        pool.add(arena);
+                    }
                     plugin.getLogger().info("Loaded arena: " + arenaName);
                 } else {
                     plugin.getLogger().warning("Failed to load arena: " + arenaName + " (invalid world or location)");
@@ -42,6 +66,7 @@ public class ArenaManager {
             }
         }
 
+        index.rebuild(arenas.values());
         plugin.getLogger().info("Loaded " + arenas.size() + " arenas from configuration");
     }
 
@@ -92,11 +117,13 @@ public class ArenaManager {
                 data.getMax().getZ()
         );
 
-        return new Arena(name, data.getDisplayName(), redSpawn, blueSpawn, min, max, 0.0);
+        return new Arena(name, data.getDisplayName(), redSpawn, blueSpawn, min, max, data.getBuildLimit(), List.copyOf(data.getKits()));
     }
 
     public void addArena(Arena arena) {
         arenas.put(arena.getName(), arena);
+        pool.add(arena);
+        index.rebuild(arenas.values());
     }
 
     public Arena getArena(String name) {
@@ -108,12 +135,31 @@ public class ArenaManager {
         return arenaList.isEmpty() ? null : arenaList.get(random.nextInt(arenaList.size()));
     }
 
+    // Takes a free arena that supports the kit out of the pool, null when none is free
+    public Arena reserveArena(Kit kit) {
+        return pool.reserve(kit.getName());
+    }
+
+    // Stamps fresh copies in the background for reservations that found no arena, a later attempt picks them up
+    public void provisionArenas(Kit kit, int waiting) {
+        plugin.getArenaInstanceManager().requestInstances(kit, waiting);
+    }
+
+    public void releaseArena(Arena arena) {
+        pool.release(arena);
+        plugin.getArenaInstanceManager().release(arena);
+    }
+
     public List<Arena> getAvailableArenas() {
         return new ArrayList<>(arenas.values());
     }
 
     public void removeArena(String name) {
-        arenas.remove(name);
+        Arena arena = arenas.remove(name);
+        if (arena != null) {
+            pool.remove(arena);
+            index.rebuild(arenas.values());
+        }
     }
 
     public void saveArenaToConfig(Arena arena) {
@@ -158,19 +204,115 @@ public class ArenaManager {
         max.setY(arena.getMax().getBlockY());
         max.setZ(arena.getMax().getBlockZ());
         arenaData.setMax(max);
+        arenaData.setKits(arena.getKits());
+        arenaData.setBuildLimit(arena.getBuildLimit());
 
         // Add to config and save
         config.getArenas().put(arena.getName(), arenaData);
         plugin.getConfigManager().saveConfigs();
+
+        saveSnapshot(arena);
     }
 
-    public boolean isInArena(Location location, Arena arena) {
-        if (!location.getWorld().equals(arena.getMin().getWorld())) {
-            return false;
+    public Path getSnapshotPath(Arena arena) {
+        return plugin.getDataFolder().toPath().resolve("snapshots").resolve(arena.getName() + ".psnap");
+    }
+
+    // Captures the arena blocks on the main thread and encodes them to disk asynchronously
+    public void saveSnapshot(Arena arena) {
+        int minX = Math.min(arena.getMin().getBlockX(), arena.getMax().getBlockX());
+        int minY = Math.min(arena.getMin().getBlockY(), arena.getMax().getBlockY());
+        int minZ = Math.min(arena.getMin().getBlockZ(), arena.getMax().getBlockZ());
+        int maxX = Math.max(arena.getMin().getBlockX(), arena.getMax().getBlockX());
+        int maxY = Math.max(arena.getMin().getBlockY(), arena.getMax().getBlockY());
+        int maxZ = Math.max(arena.getMin().getBlockZ(), arena.getMax().getBlockZ());
+        Path path = getSnapshotPath(arena);
+
+        loadChunks(arena.getMin().getWorld(), minX, minZ, maxX, maxZ).thenAccept(chunks -> {
+            List<ChunkSnapshot> snapshots = new ArrayList<>(chunks.size());
+            chunks.forEach(chunk -> snapshots.add(chunk.getChunkSnapshot(false, false, false)));
+
+            TaskUtils.async(() -> {
+                try {
+                    ArenaSnapshot.write(path, snapshots, minX, minY, minZ, maxX, maxY, maxZ);
+                    plugin.getLogger().info("Saved snapshot for arena: " + arena.getName());
+                } catch (IOException e) {
+                    plugin.getLogger().severe("Failed to save snapshot for arena " + arena.getName() + ": " + e.getMessage());
+                }
+            });
+        });
+    }
+
+    // Streams the saved snapshot back into the world, the arena stays out of the pool until it is done
+    public RestoreResult restoreSnapshot(Arena arena, Runnable onComplete) {
+        Path path = getSnapshotPath(arena);
+        if (!Files.exists(path)) {
+            return RestoreResult.NO_SNAPSHOT;
+        }
+        if (!pool.reserve(arena)) {
+            return RestoreResult.IN_USE;
+        }
+
+        BlockTask restore;
+        try {
+            restore = ArenaSnapshot.restore(path, arena.getMin().getWorld(), () -> {
+                pool.release(arena);
+                onComplete.run();
+            });
+        } catch (IOException e) {
+            pool.release(arena);
+            plugin.getLogger().severe("Failed to restore snapshot for arena " + arena.getName() + ": " + e.getMessage());
+            return RestoreResult.FAILED;
         }
 
-        return location.getX() >= arena.getMin().getX() && location.getX() <= arena.getMax().getX() &&
-                location.getY() >= arena.getMin().getY() && location.getY() <= arena.getMax().getY() &&
-                location.getZ() >= arena.getMin().getZ() && location.getZ() <= arena.getMax().getZ();
+        // Writing into unloaded chunks would load them synchronously on the main thread
+        int minX = Math.min(arena.getMin().getBlockX(), arena.getMax().getBlockX());
+        int minZ = Math.min(arena.getMin().getBlockZ(), arena.getMax().getBlockZ());
+        int maxX = Math.max(arena.getMin().getBlockX(), arena.getMax().getBlockX());
+        int maxZ = Math.max(arena.getMin().getBlockZ(), arena.getMax().getBlockZ());
+        loadChunks(arena.getMin().getWorld(), minX, minZ, maxX, maxZ).whenComplete((chunks, error) -> TaskUtils.sync(() -> {
+            if (error != null) {
+                pool.release(arena);
+                plugin.getLogger().severe("Failed to load chunks for arena " + arena.getName() + ": " + error.getMessage());
+                return;
+            }
+            plugin.getBlockTaskManager().submit(restore);
+        }));
+        return RestoreResult.STARTED;
+    }
+
+    public CompletableFuture<List<Chunk>> loadChunks(World world, int minX, int minZ, int maxX, int maxZ) {
+        List<CompletableFuture<Chunk>> futures = new ArrayList<>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                futures.add(world.getChunkAtAsync(chunkX, chunkZ));
+            }
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    public boolean isInArena(Location location, Arena arena) {
+        return index.contains(arena, location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public boolean isInArena(World world, int x, int y, int z, Arena arena) {
+        return index.contains(arena, world, x, y, z);
+    }
+
+    public Arena getArenaAt(Location location) {
+        return index.getArenaAt(location);
+    }
+
+    public Arena getArenaAt(World world, int x, int y, int z) {
+        return index.getArenaAt(world, x, y, z);
+    }
+
+    public enum RestoreResult {
+        STARTED,
+        NO_SNAPSHOT,
+        IN_USE,
+        FAILED
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package dev.ocean.pandora.manager;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.core.block.BlockTask;
+import dev.ocean.pandora.utils.TaskUtils;
+import lombok.Getter;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+@Getter
+public class BlockTaskManager {
+    // Per pass on shutdown, finite so no task sees an overflowing budget
+    private static final int FLUSH_BUDGET = 1 << 16;
+
+    private final Pandora plugin;
+    private final Deque<BlockTask> tasks = new ArrayDeque<>();
+    private BukkitRunnable task;
+
+    public BlockTaskManager(Pandora plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        if (task != null) {
+            task.cancel();
+        }
+
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick(plugin.getConfigManager().getBlocksPerTick());
+            }
+        };
+        task.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    // Tasks run in submission order and share one block budget per tick
+    public void submit(BlockTask blockTask) {
+        TaskUtils.sync(() -> tasks.add(blockTask));
+    }
+
+    private void tick(int budget) {
+        while (budget > 0 && !tasks.isEmpty()) {
+            BlockTask current = tasks.peek();
+            budget -= current.run(budget);
+
+            if (!current.isDone()) {
+                return;
+            }
+
+            tasks.poll();
+            try {
+                current.complete();
+            } catch (Exception e) {
+                plugin.getLogger().severe("Block task completion failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Runs every queued task to completion, used on shutdown
+    public void flush() {
+        while (!tasks.isEmpty()) {
+            tick(FLUSH_BUDGET);
+        }
+    }
+}
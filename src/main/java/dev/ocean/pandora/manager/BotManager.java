@@ -35,6 +35,15 @@ public class BotManager {
         return botProfiles.get(name);
     }
 
+    public BotProfile getBotProfile(int difficulty) {
+        for (BotProfile profile : botProfiles.values()) {
+            if (profile.getDifficulty() == difficulty) {
+                return profile;
+            }
+        }
+        return getRandomBotProfile();
+    }
+
     public BotProfile getRandomBotProfile() {
         List<BotProfile> profiles = List.copyOf(botProfiles.values());
         return profiles.get(random.nextInt(profiles.size()));
@@ -6,6 +6,7 @@ import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.config.ArenaConfig;
 import dev.ocean.pandora.config.KitConfig;
 import dev.ocean.pandora.config.MainConfig;
+import dev.ocean.pandora.core.queue.EloWindow;
 import lombok.Getter;
 
 import java.nio.file.Path;
@@ -97,11 +98,19 @@ public class ConfigManager {
         return mainConfig.getDatabase().getPassword();
     }
 
+    public MainConfig.DatabaseConfig getDatabaseSettings() {
+        return mainConfig.getDatabase();
+    }
+
     // Match configuration getters
     public int getMatchTimeLimit() {
         return mainConfig.getMatch().getTimeLimit();
     }
 
+    public int getEloKFactor() {
+        return mainConfig.getMatch().getEloKFactor();
+    }
+
     public boolean isSpectatingAllowed() {
         return mainConfig.getMatch().isAllowSpectating();
     }
@@ -119,8 +128,22 @@ public class ConfigManager {
         return mainConfig.getQueue().getMaxQueueTime();
     }
 
-    public boolean areBotMatchesEnabled() {
-        return mainConfig.getQueue().isEnableBotMatches();
+    public int getMatchmakingInterval() {
+        return Math.max(1, mainConfig.getQueue().getMatchmakingInterval());
+    }
+
+    public int getMaxMatchesPerTick() {
+        return Math.max(1, mainConfig.getQueue().getMaxMatchesPerTick());
+    }
+
+    public EloWindow getEloWindow() {
+        MainConfig.QueueConfig queue = mainConfig.getQueue();
+        return new EloWindow(
+                queue.getEloRangeBase(),
+                queue.getEloRangeIncrement(),
+                queue.getEloRangeInterval(),
+                queue.getEloRangeMax()
+        );
     }
 
     // Bot configuration getters
@@ -132,6 +155,15 @@ public class ConfigManager {
         return mainConfig.getBot().getNames();
     }
 
+    // Arena configuration getters
+    public int getBlocksPerTick() {
+        return Math.max(1, mainConfig.getArena().getBlocksPerTick());
+    }
+
+    public MainConfig.ArenaSettingsConfig getArenaSettings() {
+        return mainConfig.getArena();
+    }
+
     // General configuration getters
     public String getPrefix() {
         return mainConfig.getGeneral().getPrefix();
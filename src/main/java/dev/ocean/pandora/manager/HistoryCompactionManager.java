@@ -0,0 +1,67 @@
+package dev.ocean.pandora.manager;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.config.MainConfig;
+import lombok.Getter;
+import org.bukkit.scheduler.BukkitRunnable;
+
+// Periodically moves old match_history rows into daily totals and the archive, one small batch at a time
+@Getter
+public class HistoryCompactionManager {
+    // Gap between batches so live match writes get the connection in between
+    private static final long BATCH_PAUSE_MILLIS = 100;
+
+    private final Pandora plugin;
+    private BukkitRunnable task;
+
+    public HistoryCompactionManager(Pandora plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        if (task != null) {
+            task.cancel();
+        }
+
+        MainConfig.DatabaseConfig settings = plugin.getConfigManager().getDatabaseSettings();
+        if (settings.getHistoryRetentionDays() <= 0) {
+            return;
+        }
+
+        long interval = settings.getCompactionInterval() * 60L * 20L;
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                compact();
+            }
+        };
+        task.runTaskTimerAsynchronously(plugin, 20L * 60L, interval);
+    }
+
+    // Runs until a batch comes back short, which means every expired row is gone
+    public void compact() {
+        MainConfig.DatabaseConfig settings = plugin.getConfigManager().getDatabaseSettings();
+        int batchSize = Math.max(1, settings.getCompactionBatchSize());
+        long start = System.currentTimeMillis();
+        int total = 0;
+
+        while (plugin.isEnabled()) {
+            int moved = plugin.getStatsStorage().compactHistory(settings.getHistoryRetentionDays(), batchSize, settings.isArchiveHistory());
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+
+            try {
+                Thread.sleep(BATCH_PAUSE_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (total > 0) {
+            plugin.getLogger().info("Compacted " + total + " match history rows in " + (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+}
@@ -3,6 +3,7 @@ package dev.ocean.pandora.manager;
 import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.config.KitConfig;
 import dev.ocean.pandora.core.kit.Kit;
+import dev.ocean.pandora.core.kit.KitCounters;
 import lombok.Getter;
 import org.bukkit.Material;
 import org.bukkit.Color;
@@ -13,12 +14,15 @@ import org.bukkit.inventory.meta.PotionMeta;
 import org.bukkit.potion.PotionType;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Getter
 public class KitManager {
     private final Pandora plugin;
     private final Map<String, Kit> kits = new HashMap<>();
+    // Live queue and match counts by lower case kit name, a reload replaces the Kit objects but not these
+    private final Map<String, KitCounters> kitCounters = new ConcurrentHashMap<>();
 
     public KitManager(Pandora plugin) {
         this.plugin = plugin;
@@ -259,6 +263,18 @@ public class KitManager {
                 .collect(Collectors.toList());
     }
 
+    public KitCounters getCounters(Kit kit) {
+        return kitCounters.computeIfAbsent(kit.getName().toLowerCase(), key -> new KitCounters());
+    }
+
+    public Map<Kit, KitCounters.Snapshot> getActivitySnapshot() {
+        Map<Kit, KitCounters.Snapshot> snapshot = new HashMap<>(kits.size());
+        for (Kit kit : kits.values()) {
+            snapshot.put(kit, getCounters(kit).snapshot());
+        }
+        return snapshot;
+    }
+
     public void removeKit(String name) {
         kits.remove(name);
     }
@@ -0,0 +1,82 @@
+package dev.ocean.pandora.manager;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.core.leaderboard.Leaderboard;
+import dev.ocean.pandora.database.PlayerStats;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Boards are keyed by lower case kit name, GLOBAL ranks the overall rating from player_stats
+@Getter
+public class LeaderboardManager {
+    public static final String GLOBAL = "global";
+
+    private final Pandora plugin;
+    private final Map<String, Leaderboard> boards = new ConcurrentHashMap<>();
+
+    public LeaderboardManager(Pandora plugin) {
+        this.plugin = plugin;
+    }
+
+    // Bulk loads every board off the main thread, then replays whatever changed meanwhile
+    public void load() {
+        plugin.getStatsStorage().getExecutor().execute(() -> {
+            List<Leaderboard.Entry> ratings = plugin.getStatsStorage().loadRatings();
+            boardFor(GLOBAL).rebuild(ratings);
+            plugin.getStatsStorage().loadKitRatings().forEach((kit, entries) -> {
+                // Ratings for kits that were removed from the config get no board
+                Leaderboard board = boardFor(kit);
+                if (board != null) {
+                    board.rebuild(entries);
+                }
+            });
+
+            for (PlayerStats stats : plugin.getStatsManager().getCache().values()) {
+                update(GLOBAL, stats.getUuid(), stats.getUsername(), stats.getElo());
+                stats.getKitRatings().forEach((kit, rating) -> update(kit, stats.getUuid(), stats.getUsername(), rating));
+            }
+            plugin.getLogger().info("Loaded leaderboards with " + ratings.size() + " players");
+        });
+    }
+
+    // Null for names that are neither GLOBAL nor a loaded kit, lookups never create boards
+    public Leaderboard getBoard(String name) {
+        return boards.get(name.toLowerCase());
+    }
+
+    public boolean isBoard(String name) {
+        String key = name.toLowerCase();
+        return key.equals(GLOBAL) || plugin.getKitManager().getAvailableKits().stream()
+                .anyMatch(kit -> kit.getName().equalsIgnoreCase(key));
+    }
+
+    // Only rating updates create boards, and only for GLOBAL or a kit that exists
+    private Leaderboard boardFor(String name) {
+        Leaderboard board = getBoard(name);
+        if (board != null || !isBoard(name)) {
+            return board;
+        }
+        return boards.computeIfAbsent(name.toLowerCase(), key -> new Leaderboard());
+    }
+
+    public void update(String board, UUID uuid, String name, int rating) {
+        Leaderboard leaderboard = boardFor(board);
+        if (leaderboard != null) {
+            leaderboard.update(uuid, name, rating);
+        }
+    }
+
+    public List<Leaderboard.Entry> getTop(String board, int limit) {
+        Leaderboard leaderboard = getBoard(board);
+        return leaderboard != null ? leaderboard.getTop(limit) : List.of();
+    }
+
+    public int getRank(String board, UUID uuid) {
+        Leaderboard leaderboard = getBoard(board);
+        return leaderboard != null ? leaderboard.getRank(uuid) : -1;
+    }
+}
@@ -1,79 +1,213 @@
 package dev.ocean.pandora.manager;
 
+import dev.ocean.pandora.Pandora;
 import dev.ocean.pandora.core.arena.Arena;
 import dev.ocean.pandora.core.kit.Kit;
 import dev.ocean.pandora.core.match.Match;
+import dev.ocean.pandora.core.match.MatchState;
 import dev.ocean.pandora.core.match.impl.OneVersusOneMatch;
 import dev.ocean.pandora.core.match.impl.BotMatch;
 import dev.ocean.pandora.core.player.User;
 import dev.ocean.pandora.core.player.UserStatus;
+import dev.ocean.pandora.utils.TaskUtils;
 import lombok.Getter;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 @Getter
 public class MatchManager {
-    private final Map<UUID, Match> matches = new HashMap<>();
+    private final Map<UUID, Match> matches = new ConcurrentHashMap<>();
+    private final Map<UUID, Match> playerMatches = new ConcurrentHashMap<>();
+    private final Map<Kit, Set<Match>> kitMatches = new ConcurrentHashMap<>();
+    private final List<Consumer<Match>> endListeners = new CopyOnWriteArrayList<>();
+    private BukkitRunnable ticker;
+    private long lastTickNanos = 0;
+    private long maxTickNanos = 0;
+
+    // One repeating task drives every match instead of each match scheduling its own timers
+    public void startTicker() {
+        if (ticker != null) {
+            ticker.cancel();
+        }
+
+        ticker = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tickMatches();
+            }
+        };
+        ticker.runTaskTimer(Pandora.getInstance(), 20L, 20L);
+    }
+
+    private void tickMatches() {
+        long start = System.nanoTime();
+
+        for (Match match : matches.values()) {
+            if (match.getState() == MatchState.PREPARING) {
+                continue;
+            }
+
+            try {
+                match.tick();
+            } catch (Exception e) {
+                Pandora.getInstance().getLogger().severe("Failed to tick match " + match.getUuid() + ": " + e.getMessage());
+                endMatch(match);
+            }
+        }
+
+        lastTickNanos = System.nanoTime() - start;
+        maxTickNanos = Math.max(maxTickNanos, lastTickNanos);
+    }
 
     public Match createMatch(Kit kit, Arena arena, List<User> red, List<User> blue) {
-        Match match = new OneVersusOneMatch(kit, arena, red, blue);
-        matches.put(match.getUuid(), match);
+        return createMatch(kit, arena, red, blue, false);
+    }
 
-        // Update user statuses
-        red.forEach(user -> {
-            user.setCurrentMatch(match);
-            user.setStatus(UserStatus.IN_MATCH);
-        });
-        blue.forEach(user -> {
-            user.setCurrentMatch(match);
-            user.setStatus(UserStatus.IN_MATCH);
-        });
+    public Match createMatch(Kit kit, Arena arena, List<User> red, List<User> blue, boolean ranked) {
+        Match match = new OneVersusOneMatch(kit, arena, red, blue);
+        match.setRanked(ranked);
+        register(match);
 
-        match.start();
+        prepareAndStart(match);
         return match;
     }
 
     public void endMatch(UUID matchId) {
-        Match match = matches.remove(matchId);
+        Match match = matches.get(matchId);
         if (match != null) {
+            endMatch(match);
+        }
+    }
+
+    // Every way a match can finish funnels through here, the state CAS makes it run once
+    public void endMatch(Match match) {
+        if (!match.markEnded()) {
+            return;
+        }
+
+        unregister(match);
+        try {
             match.end();
             match.cleanup();
+        } catch (Exception e) {
+            Pandora.getInstance().getLogger().severe("Failed to end match " + match.getUuid() + ": " + e.getMessage());
+        }
+        restoreArena(match);
 
-            // Reset user statuses
-            getAllUsers(match).forEach(user -> {
-                user.setCurrentMatch(null);
-                user.setStatus(UserStatus.IN_LOBBY);
-            });
+        for (Consumer<Match> listener : endListeners) {
+            try {
+                listener.accept(match);
+            } catch (Exception e) {
+                Pandora.getInstance().getLogger().severe("Match end listener failed: " + e.getMessage());
+            }
         }
     }
 
+    public void onMatchEnd(Consumer<Match> listener) {
+        endListeners.add(listener);
+    }
+
     public Match createBotMatch(Kit kit, Arena arena, User player, String botName) {
-        BotMatch match = new BotMatch(kit, arena, List.of(player), botName, 1);
+        BotMatch match = Pandora.getInstance().getBotManager().createBotMatch(kit, arena, player, botName);
+        register(match);
+
+        prepareAndStart(match);
+        return match;
+    }
+
+    // The countdown only begins once the arena is loaded and every player has arrived
+    private void prepareAndStart(Match match) {
+        match.prepare().whenComplete((ignored, throwable) -> TaskUtils.sync(() -> {
+            if (match.getState() != MatchState.PREPARING) {
+                return;
+            }
+
+            if (throwable != null) {
+                Pandora.getInstance().getLogger().severe("Failed to prepare match " + match.getUuid() + ": " + throwable.getMessage());
+                endMatch(match);
+                return;
+            }
+
+            match.start();
+        }));
+    }
+
+    private void register(Match match) {
         matches.put(match.getUuid(), match);
+        kitMatches.computeIfAbsent(match.getKit(), k -> ConcurrentHashMap.newKeySet()).add(match);
+        Pandora.getInstance().getKitManager().getCounters(match.getKit()).addPlaying(match.isRanked(), match.getPlayerCount());
 
-        player.setCurrentMatch(match);
-        player.setStatus(UserStatus.IN_MATCH);
+        // Update user statuses
+        forEachUser(match, user -> {
+            playerMatches.put(user.getUuid(), match);
+            user.setCurrentMatch(match);
+            user.setStatus(UserStatus.IN_MATCH);
+        });
+    }
 
-        match.start();
-        return match;
+    private void unregister(Match match) {
+        if (!matches.remove(match.getUuid(), match)) {
+            return;
+        }
+
+        Set<Match> sameKit = kitMatches.get(match.getKit());
+        if (sameKit != null) {
+            sameKit.remove(match);
+        }
+        Pandora.getInstance().getKitManager().getCounters(match.getKit()).addPlaying(match.isRanked(), -match.getPlayerCount());
+
+        // Reset user statuses
+        forEachUser(match, user -> {
+            playerMatches.remove(user.getUuid(), match);
+            user.setCurrentMatch(null);
+            user.setStatus(UserStatus.IN_LOBBY);
+        });
+    }
+
+    // Rolls back block changes first, the arena only returns to the pool once it is clean
+    private void restoreArena(Match match) {
+        Pandora plugin = Pandora.getInstance();
+        Arena arena = match.getArena();
+
+        if (match.getJournal().isEmpty()) {
+            match.releaseChunks();
+            plugin.getArenaManager().releaseArena(arena);
+            return;
+        }
+
+        // Chunk tickets stay until the rollback is done so it never loads chunks synchronously
+        plugin.getBlockTaskManager().submit(match.getJournal().rollback(
+                arena.getMin().getWorld(),
+                () -> {
+                    match.releaseChunks();
+                    plugin.getArenaManager().releaseArena(arena);
+                }
+        ));
     }
 
-    private List<User> getAllUsers(Match match) {
-        List<User> users = new ArrayList<>();
-        users.addAll(match.getRed());
-        users.addAll(match.getBlue());
-        return users;
+    private void forEachUser(Match match, Consumer<User> action) {
+        match.getRed().forEach(action);
+        match.getBlue().forEach(action);
     }
 
     public List<Match> getActiveMatches() {
         return new ArrayList<>(matches.values());
     }
 
+    public Set<Match> getMatchesByKit(Kit kit) {
+        Set<Match> sameKit = kitMatches.get(kit);
+        return sameKit == null ? Collections.emptySet() : Collections.unmodifiableSet(sameKit);
+    }
+
     public Match getMatchByPlayer(UUID playerUuid) {
-        return matches.values().stream()
-                .filter(match -> getAllUsers(match).stream()
-                        .anyMatch(user -> user.getUuid().equals(playerUuid)))
-                .findFirst()
-                .orElse(null);
+        return playerMatches.get(playerUuid);
+    }
+
+    public boolean isInMatch(UUID playerUuid) {
+        return playerMatches.containsKey(playerUuid);
     }
-}
\ No newline at end of file
+}
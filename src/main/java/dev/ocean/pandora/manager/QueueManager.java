@@ -5,9 +5,17 @@ import dev.ocean.pandora.core.arena.Arena;
 import dev.ocean.pandora.core.kit.Kit;
 import dev.ocean.pandora.core.player.User;
 import dev.ocean.pandora.core.player.UserStatus;
+import dev.ocean.pandora.core.queue.EloWindow;
+import dev.ocean.pandora.core.queue.KitQueue;
+import dev.ocean.pandora.core.queue.MatchmakingTask;
 import dev.ocean.pandora.core.queue.Queue;
+import dev.ocean.pandora.core.queue.RankedQueue;
+import dev.ocean.pandora.core.queue.UnrankedQueue;
 import dev.ocean.pandora.utils.StringUtils;
+import dev.ocean.pandora.utils.TaskUtils;
+import dev.ocean.pandora.utils.TimingWheel;
 import lombok.Getter;
+import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -15,103 +23,274 @@ import java.util.concurrent.ConcurrentHashMap;
 @Getter
 public class QueueManager {
 
+
     private final Pandora plugin;
-    private final Map<Kit, List<Queue>> unrankedQueues = new ConcurrentHashMap<>();
-    private final Map<Kit, List<Queue>> rankedQueues = new ConcurrentHashMap<>();
+    private final Map<Kit, UnrankedQueue> unrankedQueues = new ConcurrentHashMap<>();
+    private final Map<Kit, RankedQueue> rankedQueues = new ConcurrentHashMap<>();
+    // Every queued user, including those already paired and waiting for a match to start.
+    // Kit queues lock themselves, pendingMatches is only touched by the matchmaking task.
+    private final Map<UUID, Queue> queuedUsers = new ConcurrentHashMap<>();
+    private final Deque<Queue[]> pendingMatches = new ArrayDeque<>();
+    private final TimingWheel<Queue> expiryWheel = new TimingWheel<>(1000L, 64);
+    private MatchmakingTask matchmakingTask;
 
     public QueueManager(Pandora plugin) {
         this.plugin = plugin;
     }
 
+    public void startMatchmaking() {
+        if (matchmakingTask != null) {
+            matchmakingTask.cancel();
+        }
+
+        matchmakingTask = new MatchmakingTask(plugin, this);
+        matchmakingTask.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    // Safe to call from any thread, player feedback is delivered on the main thread
     public void joinQueue(User user, Kit kit, boolean ranked) {
-        if (user.getStatus() != UserStatus.IN_LOBBY) {
-            user.toPlayer().sendMessage(StringUtils.handle("&cYou cannot join a queue right now!"));
+        if (ranked && user.getStats() == null) {
+            TaskUtils.sync(() -> {
+                Player player = user.toPlayer();
+                if (player != null) {
+                    player.sendMessage(StringUtils.handle("&cYour stats are still loading, try again in a moment!"));
+                }
+            });
+            return;
+        }
+
+        if (!enqueue(user, kit, ranked)) {
+            TaskUtils.sync(() -> {
+                Player player = user.toPlayer();
+                if (player != null) {
+                    player.sendMessage(StringUtils.handle("&cYou cannot join a queue right now!"));
+                }
+            });
             return;
         }
 
-        Map<Kit, List<Queue>> targetQueues = ranked ? rankedQueues : unrankedQueues;
-        List<Queue> kitQueues = targetQueues.computeIfAbsent(kit, k -> new ArrayList<>());
+        TaskUtils.sync(() -> {
+            Player player = user.toPlayer();
+            if (player == null) {
+                return;
+            }
+
+            plugin.getLobbyManager().giveItems(player);
+
+            String queueType = ranked ? "ranked" : "unranked";
+            player.sendMessage(StringUtils.handle("&aYou have joined the " + queueType + " queue for &b" + kit.getDisplayName() + "&a!"));
+        });
+    }
+
+    // Thread-safe queue insertion without touching the Bukkit API
+    public boolean enqueue(User user, Kit kit, boolean ranked) {
+        if (user.getStatus() != UserStatus.IN_LOBBY) {
+            return false;
+        }
 
-        // Create new queue entry
-        Queue queue = new Queue(user, kit, ranked, System.currentTimeMillis());
-        kitQueues.add(queue);
+        // Ranked entries are keyed by rating, so they need the stats loaded at login
+        if (ranked && user.getStats() == null) {
+            return false;
+        }
 
-        // Update user status
+        // Create new queue entry, pairing happens on the next matchmaking pass
+        Queue queue = new Queue(user, kit, ranked, System.currentTimeMillis(), ranked ? getElo(user, kit) : 0);
+        // Status and counter go first, a dequeue that sees the entry must also see them to undo
         user.setStatus(UserStatus.IN_QUEUE);
-        plugin.getLobbyManager().giveItems(user.toPlayer());
+        plugin.getKitManager().getCounters(kit).addQueued(ranked, 1);
+        if (queuedUsers.putIfAbsent(user.getUuid(), queue) != null) {
+            // Lost to a concurrent join, whose entry already owns the status
+            plugin.getKitManager().getCounters(kit).addQueued(ranked, -1);
+            return false;
+        }
 
-        String queueType = ranked ? "ranked" : "unranked";
-        user.toPlayer().sendMessage(StringUtils.handle("&aYou have joined the " + queueType + " queue for &b" + kit.getDisplayName() + "&a!"));
+        KitQueue kitQueue = getKitQueue(kit, ranked);
+        kitQueue.add(queue);
+        if (!isCurrent(queue)) {
+            // Left before the node was linked, so the dequeue could not unlink it
+            kitQueue.remove(queue);
+            return true;
+        }
 
-        // Try to find a match
-        tryMatchmaking(kit, ranked);
+        int maxQueueTime = plugin.getConfigManager().getMaxQueueTime();
+        if (maxQueueTime > 0) {
+            expiryWheel.schedule(queue, queue.getJoinTime() + maxQueueTime * 1000L);
+        }
+        return true;
     }
 
+    // Safe to call from any thread, player feedback is delivered on the main thread
     public void leaveQueue(User user) {
-        // Remove from all queues
-        removeFromQueues(user, unrankedQueues);
-        removeFromQueues(user, rankedQueues);
+        if (!dequeue(user)) {
+            return;
+        }
+
+        TaskUtils.sync(() -> {
+            Player player = user.toPlayer();
+            if (player != null) {
+                plugin.getLobbyManager().giveItems(player);
+                player.sendMessage(StringUtils.handle("&eYou have left the queue!"));
+            }
+        });
+    }
 
+    public boolean dequeue(User user) {
+        Queue queue = queuedUsers.remove(user.getUuid());
+        // A user who is not queued may already be in a match, their status is not ours to reset
+        if (queue == null) {
+            return false;
+        }
         user.setStatus(UserStatus.IN_LOBBY);
-        plugin.getLobbyManager().giveItems(user.toPlayer());
-        user.toPlayer().sendMessage(StringUtils.handle("&eYou have left the queue!"));
+        plugin.getKitManager().getCounters(queue.getKit()).addQueued(queue.isRanked(), -1);
+
+        // Paired entries are already unlinked, the pending pair notices on start
+        getKitQueue(queue.getKit(), queue.isRanked()).remove(queue);
+        return true;
+    }
+
+    public boolean isInQueue(User user) {
+        return queuedUsers.containsKey(user.getUuid());
+    }
+
+    public Queue getQueue(User user) {
+        return queuedUsers.get(user.getUuid());
+    }
+
+    public int getQueuePosition(User user) {
+        Queue queue = queuedUsers.get(user.getUuid());
+        if (queue == null) {
+            return 0;
+        }
+
+        return getKitQueue(queue.getKit(), queue.isRanked()).position(queue);
     }
 
-    private void removeFromQueues(User user, Map<Kit, List<Queue>> queues) {
-        for (List<Queue> kitQueues : queues.values()) {
-            kitQueues.removeIf(queue -> queue.getUser().equals(user));
+    private KitQueue getKitQueue(Kit kit, boolean ranked) {
+        if (ranked) {
+            return rankedQueues.computeIfAbsent(kit, k -> new RankedQueue());
         }
+        return unrankedQueues.computeIfAbsent(kit, k -> new UnrankedQueue());
+    }
+
+    private int getElo(User user, Kit kit) {
+        return user.getStats().getKitElo(kit.getName());
     }
 
-    private void tryMatchmaking(Kit kit, boolean ranked) {
-        Map<Kit, List<Queue>> targetQueues = ranked ? rankedQueues : unrankedQueues;
-        List<Queue> kitQueues = targetQueues.get(kit);
+    public void expireEntries(long now) {
+        expiryWheel.advance(now, this::onQueueTimeout);
+    }
 
-        if (kitQueues == null || kitQueues.size() < 2) {
+    private void onQueueTimeout(Queue queue) {
+        // Left or already matched since the timeout was scheduled
+        if (!isCurrent(queue)) {
             return;
         }
 
-        // Get two players from queue
-        Queue player1Queue = kitQueues.remove(0);
-        Queue player2Queue = kitQueues.remove(0);
+        User user = queue.getUser();
+        if (queue.isRanked() && !queue.isExpanded()) {
+            queue.setExpanded(true);
+
+            Player player = user.toPlayer();
+            if (player != null) {
+                player.sendMessage(StringUtils.handle("&eNo opponent found yet, expanding your search range..."));
+            }
+        } else if (!queue.isRanked()) {
+            Player player = user.toPlayer();
+            if (player != null) {
+                player.sendMessage(StringUtils.handle("&eNo opponent found yet, you are still in the queue."));
+            }
+        }
+    }
+
+    public void pairQueues() {
+        EloWindow window = plugin.getConfigManager().getEloWindow();
+        long now = System.currentTimeMillis();
+
+        for (UnrankedQueue unrankedQueue : unrankedQueues.values()) {
+            pendingMatches.addAll(unrankedQueue.pollPairs(window, now));
+        }
+        for (RankedQueue rankedQueue : rankedQueues.values()) {
+            pendingMatches.addAll(rankedQueue.pollPairs(window, now));
+        }
+    }
+
+    public void startPendingMatches(int limit) {
+        List<Queue[]> waiting = new ArrayList<>();
+        int started = 0;
+
+        for (int attempts = pendingMatches.size(); attempts > 0 && started < limit; attempts--) {
+            Queue[] pair = pendingMatches.poll();
+            boolean firstQueued = isCurrent(pair[0]);
+            boolean secondQueued = isCurrent(pair[1]);
+
+            // One side left after pairing, give the other their place back
+            if (!firstQueued || !secondQueued) {
+                if (firstQueued) {
+                    getKitQueue(pair[0].getKit(), pair[0].isRanked()).addFirst(pair[0]);
+                }
+                if (secondQueued) {
+                    getKitQueue(pair[1].getKit(), pair[1].isRanked()).addFirst(pair[1]);
+                }
+                continue;
+            }
+
+            if (!startMatch(pair[0], pair[1])) {
+                // No arena free for this kit, keep the pair waiting without blocking other kits
+                waiting.add(pair);
+                continue;
+            }
+
+            unindex(pair[0]);
+            unindex(pair[1]);
+            started++;
+        }
+
+        for (int i = waiting.size() - 1; i >= 0; i--) {
+            pendingMatches.addFirst(waiting.get(i));
+        }
+
+        // One stamp per waiting pair at most, not one per pass
+        Map<Kit, Integer> demand = new HashMap<>();
+        waiting.forEach(pair -> demand.merge(pair[0].getKit(), 1, Integer::sum));
+        demand.forEach(plugin.getArenaManager()::provisionArenas);
+    }
+
+    private boolean unindex(Queue queue) {
+        if (!queuedUsers.remove(queue.getUser().getUuid(), queue)) {
+            return false;
+        }
+
+        plugin.getKitManager().getCounters(queue.getKit()).addQueued(queue.isRanked(), -1);
+        return true;
+    }
+
+    private boolean isCurrent(Queue queue) {
+        return queuedUsers.get(queue.getUser().getUuid()) == queue;
+    }
 
+    private boolean startMatch(Queue player1Queue, Queue player2Queue) {
         User player1 = player1Queue.getUser();
         User player2 = player2Queue.getUser();
 
-        // Get random arena
-        Arena arena = plugin.getArenaManager().getRandomArena();
+        Arena arena = plugin.getArenaManager().reserveArena(player1Queue.getKit());
         if (arena == null) {
-            // No arenas available, put players back in queue
-            kitQueues.add(0, player1Queue);
-            kitQueues.add(1, player2Queue);
-
-            player1.toPlayer().sendMessage(StringUtils.handle("&cNo arenas available! Please try again later."));
-            player2.toPlayer().sendMessage(StringUtils.handle("&cNo arenas available! Please try again later."));
-            return;
+            return false;
         }
 
         // Create match
-        plugin.getMatchManager().createMatch(kit, arena, Arrays.asList(player1), Arrays.asList(player2));
+        plugin.getMatchManager().createMatch(player1Queue.getKit(), arena, Arrays.asList(player1), Arrays.asList(player2), player1Queue.isRanked());
 
         // Notify players
         player1.toPlayer().sendMessage(StringUtils.handle("&aMatch found! Teleporting to arena..."));
         player2.toPlayer().sendMessage(StringUtils.handle("&aMatch found! Teleporting to arena..."));
+        return true;
     }
 
     public int getQueueSize(Kit kit, boolean ranked) {
-        Map<Kit, List<Queue>> targetQueues = ranked ? rankedQueues : unrankedQueues;
-        List<Queue> kitQueues = targetQueues.get(kit);
-        return kitQueues == null ? 0 : kitQueues.size();
+        return plugin.getKitManager().getCounters(kit).getQueued(ranked);
     }
 
     public int getTotalQueueSize() {
-        int total = 0;
-        for (List<Queue> queues : unrankedQueues.values()) {
-            total += queues.size();
-        }
-        for (List<Queue> queues : rankedQueues.values()) {
-            total += queues.size();
-        }
-        return total;
+        return queuedUsers.size();
     }
-}
\ No newline at end of file
+}
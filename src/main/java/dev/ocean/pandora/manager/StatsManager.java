@@ -0,0 +1,198 @@
+package dev.ocean.pandora.manager;
+
+import dev.ocean.pandora.Pandora;
+import dev.ocean.pandora.database.PlayerStats;
+import dev.ocean.pandora.database.StorageException;
+import lombok.Getter;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps stats of online players in memory, changes are written back in batches
+@Getter
+public class StatsManager {
+    private static final long STAGING_TTL_MILLIS = 60_000L;
+
+    private final Pandora plugin;
+    private final Map<UUID, PlayerStats> cache = new ConcurrentHashMap<>();
+    // Loaded during pre-login, waiting for the player to actually join
+    private final Map<UUID, Staged> staging = new ConcurrentHashMap<>();
+    // Players with match results still being applied, their entries must not be evicted meanwhile
+    private final Map<UUID, Integer> pins = new HashMap<>();
+    private BukkitRunnable flushTask;
+
+    public StatsManager(Pandora plugin) {
+        this.plugin = plugin;
+    }
+
+    public void startFlushing() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+
+        long interval = plugin.getConfigManager().getDatabaseSettings().getFlushInterval() * 20L;
+        flushTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flush();
+                evictOffline();
+            }
+        };
+        flushTask.runTaskTimerAsynchronously(plugin, interval, interval);
+    }
+
+    // Runs on the async pre-login thread so join never waits on the database
+    public void preload(UUID uuid, String name) {
+        PlayerStats stats = cache.get(uuid);
+        if (stats == null) {
+            try {
+                PlayerStats stored = plugin.getStatsStorage().loadPlayerStats(uuid);
+                stats = stored != null ? stored : create(uuid, name);
+            } catch (StorageException e) {
+                plugin.getLogger().warning("Failed to preload stats for " + name + ": " + e.getCause().getMessage());
+                return;
+            }
+        }
+
+        staging.put(uuid, new Staged(stats, System.currentTimeMillis()));
+    }
+
+    // Moves the preloaded stats into the cache, null if the preload never finished
+    public PlayerStats attach(UUID uuid, String name) {
+        Staged staged = staging.remove(uuid);
+        if (staged != null) {
+            cache.putIfAbsent(uuid, staged.stats());
+        }
+
+        PlayerStats stats = cache.get(uuid);
+        if (stats != null && name != null && !name.equals(stats.getUsername())) {
+            stats.setUsername(name);
+            stats.markDirty();
+        }
+        return stats;
+    }
+
+    // Completes on the main thread with the cached entry, creating a fresh one for new players.
+    // Fails when the lookup fails, so a database error is never mistaken for a player without stats
+    public CompletableFuture<PlayerStats> load(UUID uuid, String name) {
+        PlayerStats cached = cache.get(uuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return plugin.getStatsStorage().loadPlayerStatsAsync(uuid)
+                .thenApply(stored -> cache.computeIfAbsent(uuid, key -> stored != null ? stored : create(key, name)));
+    }
+
+    public PlayerStats getStats(UUID uuid) {
+        return cache.get(uuid);
+    }
+
+    // Blocking, for workers that are already off the main thread. Nothing is cached when the lookup fails
+    public PlayerStats getOrLoad(UUID uuid, String name) throws StorageException {
+        PlayerStats stats = cache.get(uuid);
+        if (stats == null) {
+            PlayerStats stored = plugin.getStatsStorage().loadPlayerStats(uuid);
+            stats = cache.computeIfAbsent(uuid, key -> stored != null ? stored : create(key, name));
+        }
+
+        if (name != null && !name.equals(stats.getUsername())) {
+            stats.setUsername(name);
+            stats.markDirty();
+        }
+        return stats;
+    }
+
+    public void pin(UUID uuid) {
+        synchronized (pins) {
+            pins.merge(uuid, 1, Integer::sum);
+        }
+    }
+
+    public void unpin(UUID uuid) {
+        synchronized (pins) {
+            pins.computeIfPresent(uuid, (key, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    // Every rating change goes through here so the leaderboards stay in step
+    public void updateElo(PlayerStats stats, int change) {
+        stats.updateElo(change);
+        plugin.getLeaderboardManager().update(LeaderboardManager.GLOBAL, stats.getUuid(), stats.getUsername(), stats.getElo());
+    }
+
+    public void updateKitElo(PlayerStats stats, String kitName, int change) {
+        stats.updateKitElo(kitName, change);
+        plugin.getLeaderboardManager().update(kitName, stats.getUuid(), stats.getUsername(), stats.getKitElo(kitName));
+    }
+
+    public int getElo(UUID uuid) {
+        PlayerStats stats = cache.get(uuid);
+        return stats == null ? PlayerStats.DEFAULT_ELO : stats.getElo();
+    }
+
+    public void flushAsync(UUID uuid) {
+        PlayerStats stats = cache.get(uuid);
+        if (stats != null && stats.isDirty()) {
+            plugin.getStatsStorage().getExecutor().execute(() -> flush(stats));
+        }
+    }
+
+    // Shares the lock with the batch flush so writes for one player never overtake each other
+    private synchronized void flush(PlayerStats stats) {
+        if (stats.isDirty()) {
+            write(List.of(stats));
+        }
+    }
+
+    // Writes every dirty entry in one batch, safe to call from any thread
+    public synchronized void flush() {
+        List<PlayerStats> dirty = new ArrayList<>();
+        for (PlayerStats stats : cache.values()) {
+            if (stats.isDirty()) {
+                dirty.add(stats);
+            }
+        }
+
+        if (!dirty.isEmpty()) {
+            write(dirty);
+        }
+    }
+
+    private void write(List<PlayerStats> entries) {
+        List<PlayerStats> snapshots = new ArrayList<>(entries.size());
+        entries.forEach(stats -> snapshots.add(stats.takeSnapshot()));
+
+        if (!plugin.getStatsStorage().savePlayerStatsBatch(snapshots)) {
+            // Try again on the next flush
+            entries.forEach(PlayerStats::markDirty);
+        }
+    }
+
+    // Offline players stay cached until their last changes are written
+    private void evictOffline() {
+        synchronized (pins) {
+            cache.values().removeIf(stats -> !stats.isDirty() && !pins.containsKey(stats.getUuid())
+                    && !plugin.getUserManager().getUsers().containsKey(stats.getUuid()));
+        }
+
+        // Logins that were denied after the preload never attach
+        long cutoff = System.currentTimeMillis() - STAGING_TTL_MILLIS;
+        staging.values().removeIf(staged -> staged.loadedAt() < cutoff);
+    }
+
+    private PlayerStats create(UUID uuid, String name) {
+        PlayerStats stats = new PlayerStats(uuid, name != null ? name : "Unknown", 0, 0, 0, 0, PlayerStats.DEFAULT_ELO, 0);
+        stats.markDirty();
+        return stats;
+    }
+
+    private record Staged(PlayerStats stats, long loadedAt) {
+    }
+}
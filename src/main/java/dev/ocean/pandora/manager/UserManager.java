@@ -3,13 +3,13 @@ package dev.ocean.pandora.manager;
 import dev.ocean.pandora.core.player.User;
 import lombok.Getter;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Getter
 public class UserManager {
-    private final Map<UUID, User> users = new HashMap<>();
+    private final Map<UUID, User> users = new ConcurrentHashMap<>();
 
     public User getUser(UUID uuid) {
         return users.computeIfAbsent(uuid, k -> new User(uuid, null));
@@ -0,0 +1,20 @@
+package dev.ocean.pandora.utils;
+
+import dev.ocean.pandora.Pandora;
+import org.bukkit.Bukkit;
+
+public class TaskUtils {
+
+    // Runs the task on the main thread, inline when already there
+    public static void sync(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(Pandora.getInstance(), task);
+        }
+    }
+
+    public static void async(Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(Pandora.getInstance(), task);
+    }
+}
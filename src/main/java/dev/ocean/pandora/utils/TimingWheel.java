@@ -0,0 +1,66 @@
+package dev.ocean.pandora.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel. Advancing only visits the slots whose time has come,
+ * so the cost per call does not depend on how many values are scheduled.
+ * Values are never cancelled, callers should ignore stale ones on expiry.
+ */
+public class TimingWheel<T> {
+
+    private final long resolution;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[] slots;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long resolutionMillis, int slotCount) {
+        int size = Integer.highestOneBit(Math.max(2, slotCount - 1)) << 1;
+        this.resolution = resolutionMillis;
+        this.mask = size - 1;
+        this.slots = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.currentTick = System.currentTimeMillis() / resolutionMillis;
+    }
+
+    public synchronized void schedule(T value, long deadlineMillis) {
+        // Round up so nothing fires before its deadline
+        long tick = Math.max(currentTick, (deadlineMillis + resolution - 1) / resolution);
+        slots[(int) (tick & mask)].add(new Entry<>(value, tick));
+    }
+
+    public void advance(long nowMillis, Consumer<T> expired) {
+        List<T> due = new ArrayList<>();
+
+        synchronized (this) {
+            long target = nowMillis / resolution;
+
+            while (currentTick <= target) {
+                ArrayDeque<Entry<T>> slot = slots[(int) (currentTick & mask)];
+
+                // Entries a full rotation or more away stay in the slot
+                for (int i = slot.size(); i > 0; i--) {
+                    Entry<T> entry = slot.poll();
+                    if (entry.tick() <= currentTick) {
+                        due.add(entry.value());
+                    } else {
+                        slot.add(entry);
+                    }
+                }
+
+                currentTick++;
+            }
+        }
+
+        due.forEach(expired);
+    }
+
+    private record Entry<T>(T value, long tick) {
+    }
+}
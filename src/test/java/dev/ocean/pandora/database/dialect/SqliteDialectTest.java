@@ -0,0 +1,129 @@
+package dev.ocean.pandora.database.dialect;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteDialectTest {
+
+    private final SqliteDialect dialect = new SqliteDialect();
+
+    @TempDir
+    Path folder;
+
+    private Connection connection;
+
+    @BeforeEach
+    void open() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + folder.resolve("test.db"));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE player_stats (
+                    uuid VARCHAR(36) PRIMARY KEY,
+                    username VARCHAR(16) NOT NULL,
+                    elo INTEGER DEFAULT 1000,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+            stmt.execute("""
+                CREATE TABLE match_history_daily (
+                    match_day VARCHAR(10) NOT NULL,
+                    uuid VARCHAR(36) NOT NULL,
+                    matches INTEGER DEFAULT 0,
+                    wins INTEGER DEFAULT 0,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    PRIMARY KEY (match_day, uuid)
+                )
+            """);
+            stmt.execute("CREATE TABLE match_history (match_uuid VARCHAR(36) NOT NULL, created_at TIMESTAMP)");
+            dialect.createUniqueIndex(stmt, "idx_match_history_match", "match_history(match_uuid)");
+        }
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void upsertUpdatesTheRowInPlace() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT INTO player_stats (uuid, username, elo, created_at) VALUES ('a', 'old', 1000, '2020-01-01 00:00:00')");
+        }
+
+        String upsert = dialect.upsert("player_stats", List.of("uuid"), List.of("username", "elo"));
+        try (PreparedStatement stmt = connection.prepareStatement(upsert)) {
+            stmt.setString(1, "a");
+            stmt.setString(2, "new");
+            stmt.setInt(3, 1200);
+            stmt.executeUpdate();
+        }
+
+        // A delete and re-insert would reset created_at to its default
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM player_stats"));
+        assertEquals(1200, queryLong("SELECT elo FROM player_stats WHERE uuid = 'a'"));
+        assertEquals("new", queryString("SELECT username FROM player_stats WHERE uuid = 'a'"));
+        assertEquals("2020-01-01 00:00:00", queryString("SELECT created_at FROM player_stats WHERE uuid = 'a'"));
+    }
+
+    @Test
+    void upsertIncrementAddsOntoTheExistingRow() throws SQLException {
+        String upsert = dialect.upsertIncrement("match_history_daily", List.of("match_day", "uuid"), List.of("matches", "wins"));
+        for (int i = 0; i < 3; i++) {
+            try (PreparedStatement stmt = connection.prepareStatement(upsert)) {
+                stmt.setString(1, "2024-01-01");
+                stmt.setString(2, "a");
+                stmt.setInt(3, 1);
+                stmt.setInt(4, i % 2);
+                stmt.executeUpdate();
+            }
+        }
+
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM match_history_daily"));
+        assertEquals(3, queryLong("SELECT matches FROM match_history_daily"));
+        assertEquals(1, queryLong("SELECT wins FROM match_history_daily"));
+    }
+
+    @Test
+    void insertIgnoreSkipsAReplayedMatch() throws SQLException {
+        String insert = dialect.insertIgnore("match_history", List.of("match_uuid", "created_at"));
+        for (int i = 0; i < 2; i++) {
+            try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+                stmt.setString(1, "m");
+                dialect.setTimestamp(stmt, 2, 0L);
+                stmt.executeUpdate();
+            }
+        }
+
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM match_history"));
+        assertEquals("1970-01-01 00:00:00", queryString("SELECT created_at FROM match_history"));
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}